@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus.bench;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bitflippin.wumpus.Bitboard;
+import org.bitflippin.wumpus.Board;
+import org.bitflippin.wumpus.Cell;
+import org.bitflippin.wumpus.Difficulty;
+import org.bitflippin.wumpus.Renderer;
+import org.bitflippin.wumpus.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Microbenchmarks of the hot paths of the game, run by JMH
+// Build with mvn package and run java -jar benchmarks/target/benchmarks.jar [regex]
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class Benchmarks  {
+
+	// Pits used unless benchmark varies them; setup screen default
+	private static final int PITS = 2;
+
+	// Boards prepared at once by benchmarks that use up a board per operation
+	// Preparing a whole batch per invocation keeps timer calls out of each operation
+	private static final int BATCH = 1000;
+
+	// Tunnel probability of setup screen cave preset called n
+	private static double tunnels(String n)  {
+		switch(n)  {
+			case "trivial": return Board.TRIVIAL;
+			case "simple": return Board.SIMPLE;
+			case "average": return Board.AVERAGE;
+			default: return Board.COMPLEX;
+		}
+	}
+
+	// Default board reused by createMap, for each cave preset
+	@State(Scope.Thread)
+	public static class Cave  {
+		@Param({ "trivial", "simple", "average", "complex" })
+		public String preset;
+		Board board = new Board();
+		SplittableRandom random = new SplittableRandom(1);
+		double tunnels;
+		@Setup public void setup()  { tunnels = tunnels(preset); }
+	}
+
+	// Whole createMap call on default board
+	@Benchmark
+	public boolean createMap(Cave c)  { return c.board.createMap(PITS, c.tunnels, c.random); }
+
+	// Boards laid out ahead of placement benchmarks
+	// Let stage be how many placements to make ahead: 0 none, 1 hunter, 2 hunter and pits
+	public static abstract class Placement  {
+		Board boards[] = new Board[BATCH];
+		SplittableRandom random = new SplittableRandom(1);
+		abstract int stage();
+		@Setup(Level.Invocation)
+		public void prepare()  {
+			for(int i = 0; i < BATCH; i++)  {
+				if(boards[i] == null) boards[i] = new Board();
+				Board b = boards[i];
+				b.layout(Board.COMPLEX, random);
+				if(stage() > 0) b.placeHunter(random);
+				if(stage() > 1)
+					for(int k = 0; k < PITS; k++) b.placePit(random);
+			}
+		}
+	}
+	@State(Scope.Thread)
+	public static class LaidOut extends Placement  { int stage()  { return 0; } }
+	@State(Scope.Thread)
+	public static class Hunted extends Placement  { int stage()  { return 1; } }
+	@State(Scope.Thread)
+	public static class Pitted extends Placement  { int stage()  { return 2; } }
+
+	// Hunter placement on freshly laid out board
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void placeHunter(LaidOut p, Blackhole h)  {
+		for(Board b : p.boards)
+			h.consume(b.placeHunter(p.random));
+	}
+
+	// One pit placement after hunter
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void placePit(Hunted p, Blackhole h)  {
+		for(Board b : p.boards)
+			h.consume(b.placePit(p.random));
+	}
+
+	// Wumpus placement after hunter and pits
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void placeWumpus(Pitted p, Blackhole h)  {
+		for(Board b : p.boards)
+			h.consume(b.placeWumpus(p.random));
+	}
+
+	// Random walk over average cave, fixed directions so walks don't pay for random numbers
+	@State(Scope.Thread)
+	public static class Walk  {
+		int directions[] = new int[1024];
+		int step;
+		Cell cell;
+		@Setup public void setup()  {
+			Board b = new Board();
+			b.createMap(PITS, Board.AVERAGE, new SplittableRandom(3));
+			cell = b.getStart();
+			SplittableRandom r = new SplittableRandom(2);
+			for(int i = 0; i < directions.length; i++)
+				directions[i] = r.nextInt(4);
+		}
+	}
+
+	// One step of random walk, one neighbor call
+	@Benchmark
+	public Cell neighbor(Walk w)  {
+		Cell q = w.cell.neighbor(w.directions[w.step++ & 1023]);
+		if(q != null) w.cell = q;
+		return q;
+	}
+
+	// Rooms of complex cave
+	@State(Scope.Thread)
+	public static class Rooms  {
+		List<Room> rooms = new ArrayList<Room>();
+		int next;
+		@Setup public void setup()  {
+			Board b = new Board();
+			b.createMap(PITS, Board.COMPLEX, new SplittableRandom(4));
+			for(int x = 0; x < b.getWidth(); x++)
+				for(int y = 0; y < b.getHeight(); y++)
+					if(b.getCell(x, y).isRoom()) rooms.add((Room)(b.getCell(x, y)));
+		}
+	}
+
+	// Nearest room from next room and direction of complex cave
+	@Benchmark
+	public Room propagate(Rooms s)  {
+		int i = s.next++;
+		Room q = s.rooms.get((i >>> 2) % s.rooms.size());
+		return q.neighbor(i & 3).propagate(q);
+	}
+
+	// Freshly laid out boards, with first room of each
+	@State(Scope.Thread)
+	public static class Unplaced  {
+		Board boards[] = new Board[BATCH];
+		Room rooms[] = new Room[BATCH];
+		SplittableRandom random = new SplittableRandom(5);
+		@Setup(Level.Invocation)
+		public void prepare()  {
+			for(int i = 0; i < BATCH; i++)  {
+				if(boards[i] == null) boards[i] = new Board();
+				boards[i].layout(Board.AVERAGE, random);
+				rooms[i] = null;
+				for(int x = 0; x < Board.WIDTH && rooms[i] == null; x++)
+					for(int y = 0; y < Board.HEIGHT && rooms[i] == null; y++)
+						if(boards[i].getCell(x, y).isRoom()) rooms[i] = (Room)(boards[i].getCell(x, y));
+			}
+		}
+	}
+
+	// Lair marking of Room.addWumpus on freshly laid out boards
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void addWumpus(Unplaced s)  {
+		for(Room q : s.rooms)
+			if(q != null) q.addWumpus();
+	}
+
+	// Bitboards of average cave built ahead
+	@State(Scope.Thread)
+	public static class Bits  {
+		Bitboard bits;
+		long next[];
+		@Setup public void setup()  {
+			Board b = new Board();
+			b.createMap(PITS, Board.AVERAGE, new SplittableRandom(5));
+			bits = new Bitboard(b);
+			next = bits.create();
+		}
+	}
+
+	// Rooms next to every room of average cave at once
+	@Benchmark
+	public long[] spread(Bits s)  {
+		s.bits.spread(s.bits.getRooms(), s.next);
+		return s.next;
+	}
+
+	// Lairs of average cave, two rings out from wumpus at once
+	@Benchmark
+	public long[] lairs(Bits s)  {
+		s.bits.lairs(s.next);
+		return s.next;
+	}
+
+	// Freshly created average caves
+	@State(Scope.Thread)
+	public static class Created  {
+		Board boards[] = new Board[BATCH];
+		SplittableRandom random = new SplittableRandom(8);
+		@Setup(Level.Invocation)
+		public void prepare()  {
+			for(int i = 0; i < BATCH; i++)  {
+				if(boards[i] == null) boards[i] = new Board();
+				boards[i].createMap(PITS, Board.AVERAGE, random);
+			}
+		}
+	}
+
+	// Scoring of freshly created caves, as Generator does
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void difficulty(Created s, Blackhole h)  {
+		for(Board b : s.boards)
+			h.consume(new Difficulty(b));
+	}
+
+	// Complex cave drawn into offscreen image
+	// Revealed for full redraws, hidden for updates of changed cells
+	@State(Scope.Thread)
+	public static class Drawing  {
+		Board board = new Board();
+		Renderer renderer;
+		Graphics graphics;
+		void load(long seed, boolean revealed) throws IOException  {
+			board.createMap(PITS, Board.COMPLEX, new SplittableRandom(seed));
+			if(revealed) board.showMap();
+			renderer = new Renderer(board, null);
+			renderer.loadResources();
+			BufferedImage image = new BufferedImage(board.getWidth() * Renderer.WIDTH, board.getHeight() * Renderer.HEIGHT, BufferedImage.TYPE_INT_RGB);
+			graphics = image.getGraphics();
+		}
+	}
+	@State(Scope.Thread)
+	public static class Revealed extends Drawing  {
+		@Setup public void setup() throws IOException  { load(6, true); }
+	}
+	@State(Scope.Thread)
+	public static class Hidden extends Drawing  {
+		@Setup public void setup() throws IOException  {
+			load(7, false);
+			renderer.update(graphics, null);
+		}
+	}
+
+	// Full redraw of revealed cave
+	@Benchmark
+	public void draw(Revealed s)  { s.renderer.draw(s.graphics); }
+
+	// Redraw of changed cells after hunter toggles shooting
+	@Benchmark
+	public void update(Hidden s)  {
+		s.board.setShooting(!s.board.isShooting());
+		s.renderer.update(s.graphics, null);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus.bench;
+
+import java.util.SplittableRandom;
+
+import org.bitflippin.wumpus.Board;
+
+public class GeneratorBenchmark  {
+
+	// Cave presets of setup screen
+	private static final String NAMES[] = { "trivial", "simple", "average", "complex" };
+	private static final double TUNNELS[] = { Board.TRIVIAL, Board.SIMPLE, Board.AVERAGE, Board.COMPLEX };
+
+	// Cells generated per setting, before and while measuring
+	private static final long WARMUP = 14000000;
+	private static final long CELLS = 70000000;
+
+	// Report first-layout success rate and latency of createMap
+	// For every cave preset and pit count of setup screen
+	// Optional arguments give board width and height
+	public static void main(String args[])  {
+		Board b = new Board();
+		if(args.length == 2) b = new Board(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+		long size = (long)(b.getWidth()) * b.getHeight();
+		long warmup = Math.max(WARMUP / size, 1);
+		long maps = Math.max(CELLS / size, 10);
+		SplittableRandom r = new SplittableRandom(1);
+		System.out.println(b.getWidth() + "x" + b.getHeight() + " board, " + maps + " maps per setting");
+		System.out.println("cave     pits  first-layout  failed  layouts/map  ns/map");
+		for(int i = 0; i < TUNNELS.length; i++)
+			for(int p = 0; p <= 3; p++)  {
+				for(long k = 0; k < warmup; k++)
+					b.createMap(p, TUNNELS[i], r);
+				long first = 0;
+				long failed = 0;
+				long layouts = 0;
+				long start = System.nanoTime();
+				for(long k = 0; k < maps; k++)  {
+					if(!b.createMap(p, TUNNELS[i], r)) failed++;
+					else if(b.getLayouts() == 1) first++;
+					layouts += b.getLayouts();
+				}
+				long ns = System.nanoTime() - start;
+				System.out.printf("%-8s %4d  %11.4f%%  %6d  %11.4f  %6d%n", NAMES[i], p,
+					100.0 * first / maps, failed, (double)(layouts) / maps, ns / maps);
+			}
+	}
+
+}
\ No newline at end of file
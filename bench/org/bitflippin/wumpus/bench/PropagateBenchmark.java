@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus.bench;
+
+import java.util.SplittableRandom;
+
+import org.bitflippin.wumpus.Board;
+import org.bitflippin.wumpus.Cell;
+import org.bitflippin.wumpus.Tunnel;
+
+public class PropagateBenchmark  {
+
+	// Dimensions of boards walked
+	private static final int SIZE = 300;
+
+	// Boards walked per tunnel probability
+	private static final int BOARDS = 20;
+
+	// Walks timed per board, after one untimed pass
+	private static final int PASSES = 5;
+
+	// Report tunnel chain walks per second as tunnel probability grows
+	// Every tunnel half is walked toward both of its exits
+	public static void main(String args[])  {
+		SplittableRandom r = new SplittableRandom(1);
+		System.out.println("tunnels  walks/s      mean chain  max chain");
+		for(int k = 0; k <= 19; k++)  {
+			double t = k * 0.05;
+			long walks = 0;
+			long halves = 0;
+			long cells = 0;
+			long longest = 0;
+			long ns = 0;
+			for(int i = 0; i < BOARDS; i++)  {
+				Board b = new Board(SIZE, SIZE);
+				b.createMap(0, t, r);
+				walk(b);
+				long start = System.nanoTime();
+				for(int j = 0; j < PASSES; j++)
+					walks += walk(b);
+				ns += System.nanoTime() - start;
+				for(int x = 0; x < SIZE; x++)
+					for(int y = 0; y < SIZE; y++)  {
+						Cell c = b.getCell(x, y);
+						if(c.isTunnel())  {
+							long n = chain((Tunnel)(c));
+							halves += n;
+							cells++;
+							longest = Math.max(longest, n);
+						}
+					}
+			}
+			System.out.printf("%7.2f  %11.0f  %10.2f  %9d%n", t, walks * 1e9 / ns, cells == 0 ? 0.0 : (double)(halves) / cells, longest);
+		}
+	}
+
+	// Walk every tunnel half of b toward both exits
+	// Return number of walks made
+	private static long walk(Board b)  {
+		long n = 0;
+		for(int x = 0; x < b.getWidth(); x++)
+			for(int y = 0; y < b.getHeight(); y++)  {
+				Cell c = b.getCell(x, y);
+				if(c.isTunnel())  {
+					n += walk(c);
+					n += walk(((Tunnel)(c)).getPartner());
+				}
+			}
+		return n;
+	}
+
+	// Walk tunnel half c toward both exits
+	private static int walk(Cell c)  {
+		int n = 0;
+		for(int d = 0; d < 4; d++)  {
+			Cell e = c.neighbor(d);
+			if(e != null)  {
+				if(c.propagate(e) != null) sink++;
+				n++;
+			}
+		}
+		return n;
+	}
+
+	// Keeps walks from being optimized away
+	private static long sink;
+
+	// Halves crossed walking from north half of c to room, heading north
+	// Halves of a looping chain all count
+	private static long chain(Tunnel c)  {
+		long n = 1;
+		Cell p = c.getPartner();
+		Cell q = c;
+		for(;;)  {
+			Cell next = null;
+			for(int d = 0; d < 4 && next == null; d++)  {
+				next = q.neighbor(d);
+				if(next == p) next = null;
+			}
+			if(next == null || next == c || next.isRoom()) return n;
+			p = q;
+			q = next;
+			n++;
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bitflippin.wumpus.Board;
+import org.bitflippin.wumpus.Server;
+
+public class ServerLoad  {
+
+	// Report latency of server commands with many clients playing at once
+	// Each client plays random games, shooting one turn in ten, for its share of commands
+	// With batch above 1, each command is a BATCH of that many random moves
+	// Starts server in this JVM unless given port of one running
+	// Arguments: [clients [commands per client [batch [port]]]]
+	public static void main(String args[]) throws Exception  {
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int k = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		int b = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+		Server s = null;
+		int port;
+		if(args.length > 3)
+			port = Integer.parseInt(args[3]);
+		else  {
+			s = new Server(Board.WIDTH, Board.HEIGHT, 0);
+			port = s.getPort();
+			Server t = s;
+			Thread a = new Thread(() ->  {
+				try  { t.serve(); }
+				catch(IOException e)  { e.printStackTrace(); }
+			}, "Server");
+			a.setDaemon(true);
+			a.start();
+		}
+		long latency[][] = new long[n][];
+		CountDownLatch ready = new CountDownLatch(n);
+		CountDownLatch go = new CountDownLatch(1);
+		Thread clients[] = new Thread[n];
+		for(int i = 0; i < n; i++)  {
+			int c = i;
+			clients[i] = new Thread(() ->  {
+				try  { latency[c] = play(port, k, b, new SplittableRandom(c), ready, go); }
+				catch(Exception e)  { latency[c] = new long[0]; ready.countDown(); e.printStackTrace(); }
+			});
+			clients[i].start();
+		}
+		ready.await();
+		long start = System.nanoTime();
+		go.countDown();
+		for(Thread c : clients)
+			c.join();
+		double secs = (System.nanoTime() - start) / 1e9;
+		long all[] = Arrays.stream(latency).flatMapToLong(Arrays::stream).sorted().toArray();
+		System.out.printf("%d clients, %d commands, %.0f commands/s, %.0f moves/s%n", n, all.length, all.length / secs, moves.sum() / secs);
+		System.out.println("percentile  latency ms");
+		double q[] = { 50, 90, 99, 99.9, 100 };
+		for(double p : q)
+			System.out.printf("%10s  %10.3f%n", p == 100 ? "max" : String.valueOf(p), all.length == 0 ? 0 : all[(int)(Math.min(all.length - 1, Math.ceil(p / 100 * all.length) - 1))] / 1e6);
+		if(s != null) s.close();
+	}
+
+	// Moves made by every client
+	private static LongAdder moves = new LongAdder();
+
+	// Connect to port p and play k commands of random games, b moves each
+	// Count down ready once connected, then wait for go
+	// Return nanoseconds from sending each command to reading its reply
+	private static long[] play(int p, int k, int b, SplittableRandom r, CountDownLatch ready, CountDownLatch go) throws Exception  {
+		long t[] = new long[k];
+		try(Socket s = new Socket(InetAddress.getLoopbackAddress(), p))  {
+			s.setTcpNoDelay(true);
+			BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+			OutputStream out = s.getOutputStream();
+			ready.countDown();
+			go.await();
+			String reply = "OVER";
+			for(int i = 0; i < k; i++)  {
+				String c;
+				if(!reply.startsWith("PLAY"))
+					c = "NEW";
+				else if(b > 1)
+					c = "BATCH " + batch(b, r);
+				else  {
+					String exits = reply.split(" ")[3];
+					c = (r.nextInt(10) == 0 ? "SHOOT " : "MOVE ") + exits.charAt(r.nextInt(exits.length()));
+				}
+				byte l[] = (c + "\n").getBytes(StandardCharsets.US_ASCII);
+				long start = System.nanoTime();
+				out.write(l);
+				out.flush();
+				reply = in.readLine();
+				t[i] = System.nanoTime() - start;
+				if(reply == null || reply.startsWith("ERROR")) throw new IOException("Server replied " + reply + " to " + c);
+				if(c.startsWith("MOVE") || c.startsWith("SHOOT")) moves.increment();
+				else if(c.startsWith("BATCH")) moves.add(Integer.parseInt(reply.substring(reply.indexOf(" MOVES ") + 7, reply.indexOf(" SEEN"))));
+			}
+			out.write("QUIT\n".getBytes(StandardCharsets.US_ASCII));
+			out.flush();
+			in.readLine();
+		}
+		return t;
+	}
+
+	// Moves of one BATCH: n random directions, shooting one time in ten
+	// Moves into walls are wasted, much as a bot guessing blind would waste them
+	private static String batch(int n, SplittableRandom r)  {
+		StringBuilder s = new StringBuilder();
+		for(int i = 0; i < n; i++)  {
+			if(r.nextInt(10) == 0) s.append('*');
+			s.append(Server.DIRECTIONS.charAt(r.nextInt(4)));
+		}
+		return s.toString();
+	}
+
+}
\ No newline at end of file
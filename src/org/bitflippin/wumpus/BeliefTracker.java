@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.util.Arrays;
+
+// Chance of pit or wumpus in each room, from what hunter has seen so far
+// Updated one entered room at a time, touching only rooms that room's swamp and lair speak of
+// Wumpus candidates are exact; chances treat wumpus and pits as independent,
+// and pit chances combine each nearby swamp as if it were the only one
+public class BeliefTracker  {
+
+	// Board tracked
+	// Layout of cave, start and number of pits count as known, hazards do not
+	private Board board;
+
+	// Rooms of board, numbered column by column as in Solver
+	// Number of room at x, y is at x * height + y, -1 for tunnels
+	private Room rooms[];
+	private int count;
+	private int numbers[];
+
+	// Rooms next to each room, as in Room.adjacent, without repeats
+	// A pit makes exactly these rooms swamps
+	private int adjacent[][];
+
+	// Rooms whose pit would make each room a swamp
+	private int sources[][];
+
+	// Wumpus rooms that would make each room a lair, see Room.addWumpus
+	private int lairs[][];
+
+	// Rooms entered so far
+	private boolean visited[];
+
+	// Rooms known to have no pit, and how many rooms are left unknown
+	private boolean clear[];
+	private int unknown;
+
+	// For rooms entered that showed swamp, sources not known clear
+	// One of them must be a pit
+	private boolean swamp[];
+	private int open[];
+
+	// Rooms ruled out for wumpus, lairs seen, and lair rooms naming each room
+	// A room is a candidate if not ruled out and named by every lair seen
+	private boolean excluded[];
+	private int seen;
+	private int named[];
+	private int candidates;
+	public int getCandidates()  { return candidates; }
+
+	// Generate tracker for map just created on b
+	// Call start before hunter moves
+	public BeliefTracker(Board b)  {
+		board = b;
+		int w = b.getWidth();
+		int h = b.getHeight();
+		rooms = new Room[w * h];
+		numbers = new int[w * h];
+		for(int x = 0; x < w; x++)
+			for(int y = 0; y < h; y++)  {
+				Cell c = b.getCell(x, y);
+				numbers[x * h + y] = c.isRoom() ? count : -1;
+				if(c.isRoom()) rooms[count++] = (Room)(c);
+			}
+		adjacent = new int[count][];
+		int into[] = new int[count];
+		for(int r = 0; r < count; r++)  {
+			int a[] = new int[4];
+			int n = 0;
+			for(int d = 0; d < 4; d++)  {
+				int q = number(rooms[r].adjacent(d));
+				if(!contains(a, n, q)) a[n++] = q;
+			}
+			adjacent[r] = Arrays.copyOf(a, n);
+			for(int q : adjacent[r])
+				into[q]++;
+		}
+		sources = new int[count][];
+		for(int r = 0; r < count; r++)
+			sources[r] = new int[into[r]];
+		for(int r = 0; r < count; r++)
+			for(int q : adjacent[r])
+				sources[q][--into[q]] = r;
+		// Wumpus in r makes rooms one or two steps away lairs, see Room.addWumpus
+		int ring[][] = new int[count][];
+		int near[] = new int[count];
+		Arrays.fill(into, 0);
+		for(int r = 0; r < count; r++)  {
+			int n = 0;
+			for(int q1 : adjacent[r])  {
+				if(q1 != r && !contains(near, n, q1)) near[n++] = q1;
+				for(int q2 : adjacent[q1])
+					if(q2 != r && !contains(near, n, q2)) near[n++] = q2;
+			}
+			ring[r] = Arrays.copyOf(near, n);
+			for(int q : ring[r])
+				into[q]++;
+		}
+		lairs = new int[count][];
+		for(int r = 0; r < count; r++)
+			lairs[r] = new int[into[r]];
+		for(int r = 0; r < count; r++)
+			for(int q : ring[r])
+				lairs[q][--into[q]] = r;
+		visited = new boolean[count];
+		clear = new boolean[count];
+		swamp = new boolean[count];
+		open = new int[count];
+		excluded = new boolean[count];
+		named = new int[count];
+	}
+
+	// Number of room r
+	private int number(Room r)  { return numbers[r.x * board.getHeight() + r.y]; }
+
+	// Whether first n entries of a hold q
+	private static boolean contains(int a[], int n, int q)  {
+		for(int i = 0; i < n; i++)
+			if(a[i] == q) return true;
+		return false;
+	}
+
+	// Forget everything seen and enter start room
+	// Rooms createMap keeps free of pits and wumpus count as known from the start
+	public void start()  {
+		Arrays.fill(visited, false);
+		Arrays.fill(clear, false);
+		Arrays.fill(swamp, false);
+		Arrays.fill(excluded, false);
+		Arrays.fill(named, 0);
+		unknown = count;
+		candidates = count;
+		seen = 0;
+		int s = number(board.getStart());
+		settle(s);
+		exclude(s);
+		for(int q1 : adjacent[s])  {
+			settle(q1);
+			exclude(q1);
+			for(int q2 : adjacent[q1])
+				exclude(q2);
+		}
+		enter(s);
+	}
+
+	// Take in room hunter stands in, if not entered before
+	// Call after every move; tunnels tell nothing
+	public void update()  {
+		Cell c = board.getHunter();
+		if(c != null && c.isRoom()) enter(number((Room)(c)));
+	}
+
+	// Take in what hunter perceives on entering room r
+	private void enter(int r)  {
+		if(visited[r]) return;
+		visited[r] = true;
+		Room q = rooms[r];
+		settle(r);
+		exclude(r);
+		if(q.hasSwamp())  {
+			swamp[r] = true;
+			int n = 0;
+			for(int a : sources[r])
+				if(!clear[a]) n++;
+			open[r] = n;
+		}
+		else
+			for(int a : sources[r])
+				settle(a);
+		if(q.hasLair())  {
+			seen++;
+			candidates = 0;
+			for(int w : lairs[r])
+				if(++named[w] == seen && !excluded[w]) candidates++;
+		}
+		else
+			for(int w : lairs[r])
+				exclude(w);
+	}
+
+	// Note that room r has no pit
+	private void settle(int r)  {
+		if(clear[r]) return;
+		clear[r] = true;
+		unknown--;
+		for(int v : adjacent[r])
+			if(swamp[v]) open[v]--;
+	}
+
+	// Rule room r out for wumpus
+	private void exclude(int r)  {
+		if(excluded[r]) return;
+		if(named[r] == seen) candidates--;
+		excluded[r] = true;
+	}
+
+	// Chance room r holds wumpus
+	public double wumpus(Room r)  {
+		int n = number(r);
+		if(excluded[n] || named[n] != seen || candidates == 0) return 0;
+		return 1.0 / candidates;
+	}
+
+	// Chance room r holds pit
+	// Each swamp r's pit would make counts, and makes r likelier
+	// the less likely its other unknown sources are to hold the pit instead
+	public double pit(Room r)  {
+		int n = number(r);
+		if(clear[n]) return 0;
+		double p = Math.min(1, (double)(board.getPits()) / unknown);
+		if(p == 1) return 1;
+		double odds = p / (1 - p);
+		for(int v : adjacent[n])  {
+			if(!swamp[v]) continue;
+			if(open[v] == 1) return 1;
+			double miss = 1;
+			for(int o : sources[v])
+				if(o != n && !clear[o]) miss *= certain(o) ? 0 : 1 - p;
+			odds /= 1 - miss;
+		}
+		return odds / (1 + odds);
+	}
+
+	// Whether room r must hold pit, being last unknown source of some swamp
+	private boolean certain(int r)  {
+		if(clear[r]) return false;
+		for(int v : adjacent[r])
+			if(swamp[v] && open[v] == 1) return true;
+		return false;
+	}
+
+	// Whether room r is known to hold neither pit nor wumpus
+	public boolean isSafe(Room r)  {
+		int n = number(r);
+		return clear[n] && (excluded[n] || named[n] != seen);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+// Sets of cells of a board, one bit per cell, row by row as in PackedBoard
+// Works out rooms next to many rooms at once with shifts of whole words,
+// and from them swamps and lairs as Room.addPit and Room.addWumpus mark them
+public class Bitboard  {
+
+	// Dimensions of map in cells, and words in a set of cells
+	private int width;
+	private int height;
+	private int words;
+	public int getWidth()  { return width; }
+	public int getHeight()  { return height; }
+
+	// Rooms whose neighbor in each direction is a room, by whether step wraps around edge
+	// Bits move by step or wrap places to reach neighbor
+	private long step[][] = new long[4][];
+	private long wrap[][] = new long[4][];
+	private int steps[] = new int[4];
+	private int wraps[] = new int[4];
+
+	// Room exits leading through tunnels, as cells of nearest rooms
+	// Those of cell i are to[first[i]] up to to[first[i + 1]]
+	// Too irregular for shifts, so looked up one by one for rooms in tunneled
+	private long tunneled[];
+	private int first[];
+	private int to[];
+
+	// Rooms of map, and those with pits
+	private long rooms[];
+	private long pits[];
+	public long[] getRooms()  { return rooms; }
+	public long[] getPits()  { return pits; }
+
+	// Cell holding wumpus, -1 if none
+	private int wumpus = -1;
+	public int getWumpus()  { return wumpus; }
+
+	// Scratch sets for lairs, kept to avoid garbage
+	private long home[];
+	private long near[];
+
+	// Generate sets of map laid out on b
+	// Require b be linked, as after layout or createMap
+	public Bitboard(Board b)  {
+		width = b.getWidth();
+		height = b.getHeight();
+		int n = width * height;
+		words = (n + 63) >>> 6;
+		steps[Cell.NORTH] = -width;
+		wraps[Cell.NORTH] = n - width;
+		steps[Cell.EAST] = 1;
+		wraps[Cell.EAST] = 1 - width;
+		steps[Cell.SOUTH] = width;
+		wraps[Cell.SOUTH] = width - n;
+		steps[Cell.WEST] = -1;
+		wraps[Cell.WEST] = width - 1;
+		for(int d = 0; d < 4; d++)  {
+			step[d] = create();
+			wrap[d] = create();
+		}
+		rooms = create();
+		pits = create();
+		home = create();
+		near = create();
+		tunneled = create();
+		first = new int[n + 1];
+		to = new int[4 * n];
+		int links = 0;
+		for(int y = 0; y < height; y++)
+			for(int x = 0; x < width; x++)  {
+				Cell c = b.getCell(x, y);
+				int i = y * width + x;
+				first[i] = links;
+				if(!c.isRoom()) continue;
+				Room q = (Room)(c);
+				set(rooms, i);
+				if(q.hasPit()) set(pits, i);
+				if(q.hasWumpus()) wumpus = i;
+				for(int d = 0; d < 4; d++)  {
+					Room a = q.adjacent(d);
+					if(a == null) continue;
+					if(q.neighbor(d) == a) set(edge(d, x, y) ? wrap[d] : step[d], i);
+					else  {
+						set(tunneled, i);
+						to[links++] = a.y * width + a.x;
+					}
+				}
+			}
+		first[n] = links;
+	}
+
+	// Whether step from x, y in direction d crosses edge of map
+	private boolean edge(int d, int x, int y)  {
+		switch(d)  {
+			case Cell.NORTH: return y == 0;
+			case Cell.EAST: return x == width - 1;
+			case Cell.SOUTH: return y == height - 1;
+			default: return x == 0;
+		}
+	}
+
+	// Empty set of cells
+	public long[] create()  { return new long[words]; }
+
+	// Put in t every room next to a room of s, as in Room.adjacent
+	// Require s and t be distinct
+	public void spread(long s[], long t[])  {
+		for(int i = 0; i < words; i++)
+			t[i] = 0;
+		for(int d = 0; d < 4; d++)  {
+			move(s, step[d], steps[d], t);
+			move(s, wrap[d], wraps[d], t);
+		}
+		for(int i = 0; i < words; i++)
+			for(long v = s[i] & tunneled[i]; v != 0; v &= v - 1)  {
+				int c = (i << 6) + Long.numberOfTrailingZeros(v);
+				for(int j = first[c]; j < first[c + 1]; j++)
+					set(t, to[j]);
+			}
+	}
+
+	// Put in t rooms pits make swamps, those next to any pit, as Room.addPit does
+	public void swamps(long t[])  { spread(pits, t); }
+
+	// Put in t rooms wumpus makes lairs, as Room.addWumpus does:
+	// those one or two steps from it, other than its own
+	public void lairs(long t[])  {
+		if(wumpus < 0)  {
+			for(int i = 0; i < words; i++)
+				t[i] = 0;
+			return;
+		}
+		set(home, wumpus);
+		spread(home, near);
+		clear(home, wumpus);
+		spread(near, t);
+		or(t, near);
+		clear(t, wumpus);
+	}
+
+	// Add to t every bit of s also in m, moved k places, up if k is positive
+	// Bits of m never leave map, so none need masking afterwards
+	private void move(long s[], long m[], int k, long t[])  {
+		int q = Math.abs(k) >>> 6;
+		int r = Math.abs(k) & 63;
+		if(k >= 0)
+			for(int i = words - 1; i >= q; i--)  {
+				long v = (s[i - q] & m[i - q]) << r;
+				if(r != 0 && i > q) v |= (s[i - q - 1] & m[i - q - 1]) >>> (64 - r);
+				t[i] |= v;
+			}
+		else
+			for(int i = 0; i + q < words; i++)  {
+				long v = (s[i + q] & m[i + q]) >>> r;
+				if(r != 0 && i + q + 1 < words) v |= (s[i + q + 1] & m[i + q + 1]) << (64 - r);
+				t[i] |= v;
+			}
+	}
+
+	// Operations on sets of cells, one bit per cell
+	public static boolean has(long s[], int i)  { return (s[i >>> 6] & (1L << i)) != 0; }
+	public static void set(long s[], int i)  { s[i >>> 6] |= 1L << i; }
+	public static void clear(long s[], int i)  { s[i >>> 6] &= ~(1L << i); }
+	public static void or(long s[], long t[])  {
+		for(int i = 0; i < t.length; i++)
+			s[i] |= t[i];
+	}
+	public static int size(long s[])  {
+		int n = 0;
+		for(long w : s)
+			n += Long.bitCount(w);
+		return n;
+	}
+
+}
\ No newline at end of file
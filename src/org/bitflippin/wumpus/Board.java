@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.util.SplittableRandom;
+
+public class Board  {
+
+	// Default dimensions of map in Cells
+	public static final int WIDTH = 10;
+	public static final int HEIGHT = 7;
+
+	// Dimensions of this map in Cells
+	private int width;
+	private int height;
+	public int getWidth()  { return width; }
+	public int getHeight()  { return height; }
+
+	// Messages describing state of game
+	// Welcome message or outcome of previous game
+	public static final String MSG_DEFAULT = "Setup Screen";
+	public static final String MSG_EATEN = "You got eaten by the Wumpus!";
+	public static final String MSG_SHOT = "Yay! You shot the Wumpus!";
+	public static final String MSG_FALLEN = "You fell into a slime pit!";
+
+	// Outcome of current or previous game
+	// View decides when to show it
+	private String message = MSG_DEFAULT;
+	public void message(String s)  { message = s; }
+	public String getMessage()  { return message; }
+
+	// Group of cells that form map
+	// Cells use get method to access neighbors
+	private Cell cells[][];
+	public Cell getCell(int x, int y)  { return cells[x][y]; }
+
+	// Cell chosen for wumpus
+	// Used to show where wumpus is if missed
+	private Room wumpus;
+	public Room getWumpus()  { return wumpus; }
+
+	// Cell currently occupied by hunter
+	// Null implies dead or setting up
+	private Cell hunter;
+	public void setHunter(Cell c)  { hunter = c; }
+	public Cell getHunter()  { return hunter; }
+
+	// Room hunter started game in
+	private Room start;
+	public Room getStart()  { return start; }
+
+	// If hunter is playing blindfolded
+	private boolean blindfolded;
+	public void setBlindfolded(boolean b)  { blindfolded = b; }
+	public boolean isBlindfolded()  { return blindfolded; }
+
+	// If hunter is about to shoot (pressed s)
+	private boolean shooting;
+	public boolean isShooting()  { return shooting; }
+	public void setShooting(boolean s)  {
+		if(hunter != null && s != shooting)  {
+			touch(hunter);
+			if(log != null) log.event(this, GameLog.SHOOT);
+		}
+		shooting = s;
+	}
+
+	// Where inputs and outcome of game are recorded, if anywhere
+	// Set by GameLog.begin
+	private GameLog log;
+	void setLog(GameLog l)  { log = l; }
+
+	// Cells whose picture changed since last call to clean
+	// Lets views redraw only those; tunnels appear as their north half
+	private Cell dirty[];
+	private int dirtyCount;
+	public int getDirtyCount()  { return dirtyCount; }
+	public Cell getDirty(int i)  { return dirty[i]; }
+
+	// Whether whole board changed since last call to clean
+	// Then dirty cells are not listed
+	private boolean stale = true;
+	public boolean isStale()  { return stale; }
+
+	// Note that picture of cell c changed
+	// Called by cells and rules below
+	void touch(Cell c)  {
+		if(stale) return;
+		Cell k = cells[c.x][c.y];
+		if(k.dirty) return;
+		k.dirty = true;
+		dirty[dirtyCount++] = k;
+	}
+
+	// Forget changes once view has drawn them
+	public void clean()  {
+		for(int i = 0; i < dirtyCount; i++)
+			dirty[i].dirty = false;
+		dirtyCount = 0;
+		stale = false;
+	}
+
+	// Generate empty board of default size
+	public Board()  { this(WIDTH, HEIGHT); }
+
+	// Generate empty board of w by h cells
+	// Call createMap before playing on it
+	public Board(int w, int h)  {
+		if(w < 1 || h < 1) throw new IllegalArgumentException("Board must be at least 1x1, not " + w + "x" + h);
+		width = w;
+		height = h;
+		cells = new Cell[w][h];
+		rooms = new Room[w * h];
+		dirty = new Cell[w * h];
+	}
+
+	// Generate board holding map stored in p
+	public Board(PackedBoard p)  {
+		this(p.getWidth(), p.getHeight());
+		load(p);
+	}
+
+	// Generate map with given parms
+	// True on success, false if no layout fits after LAYOUTS tries
+	// Let t be probability of creating tunnel set
+	// Let r be source of every random choice, so same seed gives same map
+	public boolean createMap(int p, double t, SplittableRandom r)  {
+		message = MSG_DEFAULT;
+		shooting = false;
+		pits = p;
+		long start = Metrics.ENABLED ? System.nanoTime() : 0;
+		long placing = 0;
+		for(layouts = 1; layouts <= LAYOUTS; layouts++)  {
+			layout(t, r);
+			long s = Metrics.ENABLED ? System.nanoTime() : 0;
+			boolean placed = placeHunter(r) && placePits(p, r) && placeWumpus(r);
+			if(Metrics.ENABLED) placing += System.nanoTime() - s;
+			if(placed)  {
+				if(Metrics.ENABLED) Metrics.created(this, t, layouts, true, start, placing);
+				return true;
+			}
+		}
+		if(Metrics.ENABLED) Metrics.created(this, t, LAYOUTS, false, start, placing);
+		return false;
+	}
+
+	// Tunnel probabilities of setup screen cave presets
+	public static final double TRIVIAL = 0.0;
+	public static final double SIMPLE = 0.2;
+	public static final double AVERAGE = 0.5;
+	public static final double COMPLEX = 0.7;
+
+	// Most layouts createMap tries before giving up
+	// Only degenerate caves with almost no rooms need more than one
+	public static final int LAYOUTS = 1000;
+
+	// Pits asked for by last call to createMap or load
+	// Known to player, unlike where they are
+	private int pits;
+	public int getPits()  { return pits; }
+
+	// Layouts used by last call to createMap
+	private int layouts;
+	public int getLayouts()  { return layouts; }
+
+	// Rooms of map in no particular order
+	// First eligible of them may still take next placement
+	private Room rooms[];
+	private int roomCount;
+	private int eligible;
+
+	// Fill board with rooms and tunnels
+	// Build table of neighbors so moves are plain lookups
+	// Every room starts out eligible; follow with placeHunter
+	public void layout(double t, SplittableRandom r)  {
+		clear();
+		for(int x = 0; x < width; x++)
+			for(int y = 0; y < height; y++)
+				if(r.nextDouble() > t) addRoom(x, y);
+				else cells[x][y] = new Tunnel(this, x, y, r.nextBoolean());
+		connect();
+	}
+
+	// Rebuild map stored in p, hunter on start room, ready to play
+	// Swamps and lairs are worked out again from pits and wumpus
+	// Require p be same size as board
+	public void load(PackedBoard p)  {
+		if(p.getWidth() != width || p.getHeight() != height)
+			throw new IllegalArgumentException("Map is " + p.getWidth() + "x" + p.getHeight() + ", board " + width + "x" + height);
+		message = MSG_DEFAULT;
+		shooting = false;
+		layouts = 0;
+		clear();
+		for(int x = 0; x < width; x++)
+			for(int y = 0; y < height; y++)  {
+				int k = p.bits(x, y);
+				if((k & PackedBoard.TUNNEL) == 0) addRoom(x, y);
+				else cells[x][y] = new Tunnel(this, x, y, (k & PackedBoard.EAST) != 0);
+			}
+		connect();
+		pits = 0;
+		for(int i = 0; i < roomCount; i++)  {
+			Room q = rooms[i];
+			int k = p.bits(q.x, q.y);
+			if((k & PackedBoard.PIT) != 0)  {
+				q.addPit();
+				pits++;
+			}
+			if((k & PackedBoard.WUMPUS) != 0)  {
+				q.addWumpus();
+				wumpus = q;
+			}
+			if((k & PackedBoard.HUNTER) != 0) start = q;
+		}
+		if(start != null) start.setHunter(true);
+	}
+
+	// Forget map before laying out another
+	private void clear()  {
+		hunter = null;
+		start = null;
+		wumpus = null;
+		stale = true;
+		dirtyCount = 0;
+		roomCount = 0;
+	}
+
+	// Put new room at x, y and list it
+	private void addRoom(int x, int y)  {
+		Room q = new Room(this, x, y);
+		q.slot = roomCount;
+		rooms[roomCount++] = q;
+		cells[x][y] = q;
+	}
+
+	// Link every cell once all exist
+	private void connect()  {
+		for(int x = 0; x < width; x++)
+			for(int y = 0; y < height; y++)  {
+				Cell c = cells[x][y];
+				c.link();
+				if(c.isTunnel()) ((Tunnel)(c)).getPartner().link();
+			}
+		for(int i = 0; i < roomCount; i++)
+			rooms[i].linkRooms();
+		eligible = roomCount;
+	}
+
+	// Make room q ineligible for further placements
+	// Swaps it behind the eligible part of rooms
+	private void exclude(Room q)  {
+		int i = q.slot;
+		if(i >= eligible) return;
+		Room e = rooms[--eligible];
+		rooms[i] = e;
+		e.slot = i;
+		rooms[eligible] = q;
+		q.slot = eligible;
+	}
+
+	// Place hunter in random room
+	// Rooms next to hunter can no longer take pit
+	// True on success, false on failure
+	public boolean placeHunter(SplittableRandom r)  {
+		if(eligible == 0) return false;
+		Room h = rooms[r.nextInt(eligible)];
+		h.setHunter(true);
+		start = h;
+		exclude(h);
+		for(int d = 0; d < 4; d++)
+			exclude(h.adjacent(d));
+		return true;
+	}
+
+	// Place p pits; see placePit
+	private boolean placePits(int p, SplittableRandom r)  {
+		for(int i = 0; i < p; i++)
+			if(!placePit(r)) return false;
+		return true;
+	}
+
+	// Choose suitable random room and place pit there
+	// Call after placeHunter so its swamps never reach hunter
+	// True on success, false on failure
+	public boolean placePit(SplittableRandom r)  {
+		if(eligible == 0) return false;
+		Room f = rooms[r.nextInt(eligible)];
+		f.addPit();
+		exclude(f);
+		return true;
+	}
+
+	// Place wumpus in random room out of hunter's reach
+	// Lairs extend two rooms, so exclude second ring around hunter
+	// Call after placeHunter and placePit
+	// True on success, false on failure
+	public boolean placeWumpus(SplittableRandom r)  {
+		Room h = (Room)(hunter);
+		for(int i = 0; i < 4; i++)  {
+			Room r1 = h.adjacent(i);
+			for(int j = 0; j < 4; j++)
+				exclude(r1.adjacent(j));
+		}
+		if(eligible == 0) return false;
+		wumpus = rooms[r.nextInt(eligible)];
+		wumpus.addWumpus();
+		exclude(wumpus);
+		return true;
+	}
+
+	// Carry out move m of a HunterAgent
+	// Goes through arrow like a key press
+	public void apply(int m)  {
+		if(hunter == null) return;
+		setShooting((m & HunterAgent.SHOOT) != 0);
+		arrow(m & HunterAgent.DIRECTION);
+	}
+
+	// Carry out first n moves of m, as apply does, stopping once game ends
+	// Fill r with moves made, cells uncovered and final state
+	// Return number of moves made
+	public int apply(int m[], int n, MoveResult r)  {
+		r.clear();
+		int i = 0;
+		while(i < n && hunter != null)  {
+			Cell c = hunter.neighbor(m[i] & HunterAgent.DIRECTION);
+			boolean hidden = c != null && !c.visible && !(c.isTunnel() && ((Tunnel)(c)).getPartner().visible);
+			apply(m[i++]);
+			if(hidden && c.visible) r.reveal(c.y * width + c.x);
+		}
+		r.finish(this, i);
+		return i;
+	}
+
+	// Let agent a play until game ends or n moves are made
+	// Let o be observation reused every turn
+	// Return number of moves made; outcome is in getMessage
+	public int play(HunterAgent a, Observation o, int n)  {
+		o.start();
+		a.start(o);
+		int i = 0;
+		while(hunter != null && i < n)  {
+			apply(a.act(o));
+			o.update();
+			i++;
+		}
+		return i;
+	}
+
+	// Called when hunter acts in direction d
+	// Either move hunter or shoot in d
+	public void arrow(int d)  {
+		if(log != null) log.event(this, d);
+		Cell c = hunter.neighbor(d);
+		if(c == null) return;
+		if(shooting)  {
+			touch(hunter);
+			touch(c);
+			shooting = false;
+			c.visible = true;
+			if(c.hasWumpus()) message(MSG_SHOT);
+			else message(MSG_EATEN);
+			hunter = null;
+		}
+		else  {
+			hunter.setHunter(false);
+			c.setHunter(true);
+		}
+		if(log != null && hunter == null) log.end(this);
+	}
+
+	// Reveal entire map and halt play
+	public void showMap()  {
+		boolean playing = hunter != null;
+		if(log != null && playing) log.event(this, GameLog.REVEAL);
+		for(int x = 0; x < width; x++)
+			for(int y = 0; y < height; y++)  {
+				Cell c = cells[x][y];
+				c.visible = true;
+				if(c.isTunnel())  {
+					Tunnel t = (Tunnel)(c);
+					t.getPartner().visible = true;
+				}
+			}
+		stale = true;
+		hunter = null;
+		if(log != null && playing) log.end(this);
+	}
+
+}
\ No newline at end of file
@@ -19,11 +19,6 @@
  */
 package org.bitflippin.wumpus;
 
-import java.awt.Graphics;
-import java.awt.Image;
-import java.net.MalformedURLException;
-import java.net.URL;
-
 abstract public class Cell  {
 
 	// Directional constants
@@ -33,29 +28,6 @@ abstract public class Cell  {
 	public static final int WEST = 3;
 	public static final int UNDEFINED = 4;
 
-	// Image constants
-	protected static final int ROOM = 0;
-	protected static final int SWAMP = 1;
-	protected static final int PIT = 2;
-	protected static final int WUMPUS = 3;
-	protected static final int NE_TUNNEL = 4;
-	protected static final int SE_TUNNEL = 5;
-	protected static final int NW_TUNNEL = 6;
-	protected static final int SW_TUNNEL = 7;
-	protected static final int NORMAL_HUNTER = 8;
-	protected static final int SHOOTING_HUNTER = 9;
-	protected static final int HIDDEN = 10;
-	protected static final int TUNNELS = 11;
-	protected static final int DOT = 12;
-
-	// Dimensions of cells in pixels
-	// Should match dimensions of GIF's
-	public static final int WIDTH = 50;
-	public static final int HEIGHT = 50;
-
-	// List of images loaded by URL
-	protected static Image pictures[] = new Image[13];
-
 	// Determine child class
 	abstract public boolean isRoom();
 	abstract public boolean isTunnel();
@@ -78,33 +50,62 @@ abstract public class Cell  {
 	abstract public boolean hasLair();
 
 	// Find "propagate neighbor" of c (nearest room to c)
+	// Walks tunnels one by one, so long chains can't overflow stack
+	// Null if tunnels loop back here without reaching room
 	public Room propagate(Cell c)  {
-		if(isRoom()) return (Room)(this);
-		for(int d = 0; d < 4; d++)  {
-			Cell n = neighbor(d);
-			if(n != null && n != c) return n.propagate(this);
+		if(Metrics.ENABLED) Metrics.propagate();
+		Cell p = c;
+		Cell q = this;
+		while(q.isTunnel())  {
+			Cell n = null;
+			for(int d = 0; d < 4 && n == null; d++)  {
+				n = q.neighbor(d);
+				if(n == p) n = null;
+			}
+			if(n == null || n == this) return null;
+			p = q;
+			q = n;
 		}
-		return null;
+		return (Room)(q);
 	}
 
 	// Immediate neighboring cell
+	// Null if we don't exit in direction d
 	// Require d be directional constant
 	public Cell neighbor(int d)  {
+		if(Metrics.ENABLED) Metrics.neighbor();
+		return links[d];
+	}
+
+	// Immediate neighboring cell in each direction
+	// Filled in once by link after map is laid out
+	private Cell links[] = new Cell[4];
+
+	// Resolve immediate neighbors from coordinates
+	// Called in map construction, once every cell exists
+	void link()  {
+		for(int d = 0; d < 4; d++)
+			links[d] = locate(d);
+	}
+
+	// Work out immediate neighboring cell
+	// Require d be directional constant
+	private Cell locate(int d)  {
 		if(!exits(d)) return null;
 		int ax = x;
 		int ay = y;
 		switch(d)  {
 			case NORTH:
-				ay = (y == 0) ? Wumpus.HEIGHT - 1 : y - 1;
+				ay = (y == 0) ? board.getHeight() - 1 : y - 1;
 				break;
 			case EAST:
-				ax = (x + 1) % Wumpus.WIDTH;
+				ax = (x + 1) % board.getWidth();
 				break;
 			case SOUTH:
-				ay = (y + 1) % Wumpus.HEIGHT;
+				ay = (y + 1) % board.getHeight();
 				break;
 			case WEST:
-				ax = (x == 0) ? Wumpus.WIDTH - 1 : x - 1;
+				ax = (x == 0) ? board.getWidth() - 1 : x - 1;
 				break;
 		}
 		Cell c = board.getCell(ax, ay);
@@ -119,6 +120,9 @@ abstract public class Cell  {
 	// Used externally for showing map
 	public boolean visible = false;
 
+	// Whether board lists cell as changed since last drawn
+	boolean dirty = false;
+
 	// Whether cell contains hunter
 	// Only one cell has this attribute
 	protected boolean hunter = false;
@@ -126,14 +130,15 @@ abstract public class Cell  {
 	// Add or remove hunter from ourself
 	// Inform board of change
 	public void setHunter(boolean h)  {
+		board.touch(this);
 		visible = true;
 		if(hasWumpus())  {
 			board.setHunter(null);
-			board.message(Wumpus.MSG_EATEN);
+			board.message(Board.MSG_EATEN);
 		}
 		else if(hasPit())  {
 			board.setHunter(null);
-			board.message(Wumpus.MSG_FALLEN);
+			board.message(Board.MSG_FALLEN);
 		}
 		else if(h)  {
 			board.setHunter(this);
@@ -152,46 +157,14 @@ abstract public class Cell  {
 
 	// Link to board
 	// Common for all cells on map
-	protected static Wumpus board;
-
-	// Load pictures from URL
-	// Associate cells with applet
-	public static void init(Wumpus b)  {
-		board = b;
-		Graphics g = board.getGraphics();
-		loadPicture(ROOM, "room.gif", g);
-		loadPicture(SWAMP, "swamp.gif", g);
-		loadPicture(PIT, "pit.gif", g);
-		loadPicture(WUMPUS, "wumpus.gif", g);
-		loadPicture(NE_TUNNEL, "ne_tunnel.gif", g);
-		loadPicture(SE_TUNNEL, "se_tunnel.gif", g);
-		loadPicture(NW_TUNNEL, "nw_tunnel.gif", g);
-		loadPicture(SW_TUNNEL, "sw_tunnel.gif", g);
-		loadPicture(NORMAL_HUNTER, "normal_hunter.gif", g);
-		loadPicture(SHOOTING_HUNTER, "shooting_hunter.gif", g);
-		loadPicture(HIDDEN, "hidden.gif", g);
-		loadPicture(TUNNELS, "tunnels.gif", g);
-		loadPicture(DOT, "dot.gif", g);
-	}
+	protected Board board;
 
 	// Generate new cell, assign parameters
 	// Used in map generation
-	public Cell(int cx, int cy)  {
+	public Cell(Board b, int cx, int cy)  {
+		board = b;
 		x = cx;
 		y = cy;
 	}
 
-	// Draw ourself onto g
-	// Let g be graphics context of applet or paint parm
-	abstract public void draw(Graphics g);
-
-	// Load image file f into picture slot k
-	// Draw it on g so it doesn't flicker
-	// Used by init only
-	private static void loadPicture(int k, String f, Graphics g)  {
-		try  { pictures[k] = board.getImage(new URL(board.getDocumentBase(), f)); }
-		catch(MalformedURLException e)  {  }
-		g.drawImage(pictures[k], 0, 0, board);
-	}
-
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+public class Difficulty  {
+
+	// Bands of score, from easiest to hardest
+	// Any means no band is asked for
+	public static final int ANY = -1;
+	public static final int EASY = 0;
+	public static final int MEDIUM = 1;
+	public static final int HARD = 2;
+
+	// Lowest score of medium and hard bands
+	// Split scores of simple two-pit caves into thirds
+	private static final double MEDIUM_SCORE = 0.21;
+	private static final double HARD_SCORE = 0.28;
+
+	// Least distance placeWumpus allows
+	private static final int NEAREST = 2;
+
+	// Weights of each measure in score
+	private static final double DISTANCE = 0.4;
+	private static final double CHAIN = 0.2;
+	private static final double COVERAGE = 0.2;
+	private static final double REACH = 0.2;
+
+	// Rooms on map, and those hunter reaches from start without entering pit or wumpus
+	private int rooms;
+	private int reachable;
+	public int getRooms()  { return rooms; }
+	public int getReachable()  { return reachable; }
+
+	// Tunnel cells between neighboring rooms, mean over every room exit and longest
+	private double chain;
+	private int longest;
+	public double getChain()  { return chain; }
+	public int getLongest()  { return longest; }
+
+	// Fraction of reachable rooms that are lairs
+	private double coverage;
+	public double getCoverage()  { return coverage; }
+
+	// Rooms entered from start before one next to wumpus, where it can be shot
+	// Negative if no such room is reachable
+	// Never below NEAREST, as placeWumpus keeps wumpus three rooms from start
+	private int distance = -1;
+	public int getDistance()  { return distance; }
+
+	// Combined score from 0 to 1, higher is harder
+	// Maps where wumpus can't be reached score 1
+	private double score;
+	public double getScore()  { return score; }
+
+	// Measure map just created on b
+	// Walks outward from start a whole ring of rooms at a time, and works out lairs
+	// two rings out from wumpus likewise, see Bitboard
+	public Difficulty(Board b)  {
+		Bitboard m = new Bitboard(b);
+		int exits = 0;
+		int tunnels = 0;
+		for(int x = 0; x < b.getWidth(); x++)
+			for(int y = 0; y < b.getHeight(); y++)  {
+				Cell c = b.getCell(x, y);
+				if(!c.isRoom()) continue;
+				rooms++;
+				for(int d = 0; d < 4; d++)  {
+					int n = length(c, d);
+					longest = Math.max(longest, n);
+					tunnels += n;
+					exits++;
+				}
+			}
+		chain = exits == 0 ? 0 : (double)(tunnels) / exits;
+		// Rooms entered so far, rooms entered last, and rooms next to those
+		long seen[] = m.create();
+		long ring[] = m.create();
+		long next[] = m.create();
+		long blocked[] = m.getPits().clone();
+		int w = m.getWumpus();
+		if(w >= 0) Bitboard.set(blocked, w);
+		Room s = b.getStart();
+		Bitboard.set(seen, s.y * b.getWidth() + s.x);
+		Bitboard.or(ring, seen);
+		for(int depth = 0; ; depth++)  {
+			m.spread(ring, next);
+			if(w >= 0 && distance < 0 && Bitboard.has(next, w)) distance = depth;
+			boolean more = false;
+			for(int i = 0; i < next.length; i++)  {
+				ring[i] = next[i] & ~blocked[i] & ~seen[i];
+				seen[i] |= ring[i];
+				more |= ring[i] != 0;
+			}
+			if(!more) break;
+		}
+		reachable = Bitboard.size(seen);
+		m.lairs(next);
+		for(int i = 0; i < next.length; i++)
+			next[i] &= seen[i];
+		int lairs = Bitboard.size(next);
+		coverage = (double)(lairs) / reachable;
+		if(distance < 0) score = 1;
+		else score = DISTANCE * clip((distance - NEAREST) / 6.0)
+			+ CHAIN * clip(chain / 2)
+			+ COVERAGE * clip(1 - 2 * coverage)
+			+ REACH * (1 - (double)(reachable) / rooms);
+	}
+
+	// Keep measure between 0 and 1
+	private static double clip(double v)  { return Math.max(0, Math.min(v, 1)); }
+
+	// Tunnel cells walked from room c leaving in direction d
+	// Follows chain as Cell.propagate does
+	private static int length(Cell c, int d)  {
+		Cell p = c;
+		Cell q = c.neighbor(d);
+		int n = 0;
+		while(q.isTunnel())  {
+			Cell m = null;
+			for(int e = 0; e < 4 && m == null; e++)  {
+				m = q.neighbor(e);
+				if(m == p) m = null;
+			}
+			p = q;
+			q = m;
+			n++;
+		}
+		return n;
+	}
+
+	// Band score lies in
+	public int getBand()  {
+		if(score >= HARD_SCORE) return HARD;
+		if(score >= MEDIUM_SCORE) return MEDIUM;
+		return EASY;
+	}
+
+	public String toString()  {
+		return String.format("score %.3f: distance %d, reachable %d/%d, chain %.2f (longest %d), lair coverage %.2f%n",
+			score, distance, reachable, rooms, chain, longest, coverage);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Append-only record of games played on boards, one after another
+// Each game is its map as in MapFile, one byte per input, then an outcome byte
+// Buffered, so recording costs about a microsecond a game
+public class GameLog implements Closeable  {
+
+	// Input bytes: directions are Cell constants, then these
+	public static final int SHOOT = 4;
+	public static final int REVEAL = 5;
+
+	// Outcome byte ending each game is END plus one of the outcomes below
+	public static final int END = 0x10;
+	public static final int ABANDONED = 0;
+	public static final int SHOT = 1;
+	public static final int EATEN = 2;
+	public static final int FALLEN = 3;
+	public static final int REVEALED = 4;
+
+	// Bytes gathered before writing, unless game ends first
+	public static final int BUFFER = 1 << 16;
+
+	// Where games are written
+	private WritableByteChannel channel;
+
+	// Bytes not yet written
+	private ByteBuffer buffer = ByteBuffer.allocate(BUFFER);
+
+	// Board of game being recorded, null between games
+	private Board board;
+
+	// Whether to write out each game as it ends, not just when buffer fills
+	// Keeps finished games of interactive play safe; bots are better off without
+	private boolean flushing;
+	public void setFlushing(boolean f)  { flushing = f; }
+
+	// First write that failed, null while recording works
+	// Log records nothing after it, as what went out may end mid-game
+	private IOException failure;
+	public IOException getFailure()  { return failure; }
+
+	// Where failure is reported, standard error unless set
+	private PrintStream report = System.err;
+	public void setReport(PrintStream p)  { report = p; }
+
+	// Generate log writing games to c
+	public GameLog(WritableByteChannel c)  { channel = c; }
+
+	// Generate log appending games to file f
+	public GameLog(Path f) throws IOException  {
+		this(FileChannel.open(f, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+	}
+
+	// Start recording game on board b
+	// Call straight after createMap, with hunter on start room
+	// Game still being recorded ends as abandoned
+	// Does nothing once a write has failed
+	public void begin(Board b) throws IOException  {
+		if(board != null) end(board);
+		if(failure != null) return;
+		int n = MapFile.size(b.getWidth(), b.getHeight()) + 1;
+		if(buffer.remaining() < n) flush();
+		if(buffer.capacity() < n) buffer = ByteBuffer.allocate(n);
+		MapFile.put(new PackedBoard(b), buffer);
+		board = b;
+		b.setLog(this);
+	}
+
+	// Record input e on board b
+	// Called by board as inputs arrive
+	void event(Board b, int e)  {
+		if(b != board) return;
+		if(!buffer.hasRemaining()) flushQuietly();
+		if(failure != null) return;
+		buffer.put((byte)(e));
+	}
+
+	// Record outcome of game on board b
+	// Called by board as game ends
+	void end(Board b)  {
+		if(b != board) return;
+		board = null;
+		if(!buffer.hasRemaining()) flushQuietly();
+		if(failure != null) return;
+		buffer.put((byte)(END | outcome(b)));
+		if(flushing) flushQuietly();
+	}
+
+	// Outcome of game on board b as it stands
+	public static int outcome(Board b)  {
+		if(b.getHunter() != null) return ABANDONED;
+		String m = b.getMessage();
+		if(m.equals(Board.MSG_SHOT)) return SHOT;
+		if(m.equals(Board.MSG_EATEN)) return EATEN;
+		if(m.equals(Board.MSG_FALLEN)) return FALLEN;
+		return REVEALED;
+	}
+
+	// Write out buffered bytes
+	// Throws first failure again once a write has failed
+	public void flush() throws IOException  {
+		if(failure != null) throw failure;
+		buffer.flip();
+		try  {
+			while(buffer.hasRemaining()) channel.write(buffer);
+		}
+		catch(IOException e)  {
+			failure = e;
+			throw e;
+		}
+		finally  {
+			buffer.compact();
+		}
+	}
+
+	// Flush from inside game rules, which can't throw
+	// Recording stops rather than stopping play, and says so once
+	private void flushQuietly()  {
+		try  { flush(); }
+		catch(IOException e)  { report.println("Game log stopped: " + e.getMessage()); }
+	}
+
+	// End game being recorded as abandoned, then write out and close
+	// Throws first failure, if any, once closed
+	public void close() throws IOException  {
+		if(board != null) end(board);
+		try  { flush(); }
+		finally  { channel.close(); }
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+
+// Frame holding the game panel
+// Kept apart from Launcher so headless runs never load AWT
+public class GameWindow  {
+
+	// Show the game in a window of w by h cells, on event thread
+	// Let t be System.nanoTime when launch began, and l log to record games in, or null
+	public static void open(int w, int h, long t, GameLog l)  {
+		SwingUtilities.invokeLater(() -> show(w, h, t, l));
+	}
+
+	// Build and show the window; called only on event thread
+	private static void show(int w, int h, long t, GameLog l)  {
+		JFrame f = new JFrame("Hunt the Wumpus");
+		Wumpus p = new Wumpus(w, h, t);
+		if(l != null)  {
+			p.setLog(l);
+			f.addWindowListener(new WindowAdapter()  {
+				public void windowClosing(WindowEvent e)  {
+					try  { l.close(); }
+					catch(IOException x)  { System.err.println("Game log not closed: " + x.getMessage()); }
+				}
+			});
+		}
+		f.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		f.setContentPane(p);
+		f.setResizable(false);
+		f.pack();
+		f.setLocationRelativeTo(null);
+		f.setVisible(true);
+		p.focus();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+public class Generator  {
+
+	// Candidate maps tried before giving up on a band
+	public static final long CANDIDATES = 4096;
+
+	// Parameters of every map generated
+	private int width;
+	private int height;
+	public int getWidth()  { return width; }
+	public int getHeight()  { return height; }
+	private int pits;
+	private double tunnels;
+
+	// Generate generator of w by h maps
+	// Let p and t be as in Board.createMap
+	public Generator(int w, int h, int p, double t)  {
+		width = w;
+		height = h;
+		pits = p;
+		tunnels = t;
+	}
+
+	// Candidates created and scored at once, one per core
+	// Whole stream would run far past the first fit before findFirst stopped it
+	private static final int BATCH = Runtime.getRuntime().availableProcessors();
+
+	// Create and score candidate maps in parallel, keeping first in band b
+	// Let b be band from Difficulty; ANY keeps first map created
+	// Null if no candidate fits
+	public Board generate(int b, long seed)  {
+		for(long i = 0; i < CANDIDATES; i += BATCH)  {
+			Board m = LongStream.range(i, Math.min(i + BATCH, CANDIDATES)).parallel()
+				.mapToObj(n -> candidate(seed + n))
+				.filter(n -> n != null && (b == Difficulty.ANY || new Difficulty(n).getBand() == b))
+				.findFirst()
+				.orElse(null);
+			if(m != null) return m;
+		}
+		return null;
+	}
+
+	// Map seeded from s alone, so same seed gives same map whatever the parallelism
+	// Adjacent seeds give unrelated SplittableRandom sequences
+	// Null if createMap fails
+	Board candidate(long s)  {
+		Board m = new Board(width, height);
+		return m.createMap(pits, tunnels, new SplittableRandom(s)) ? m : null;
+	}
+
+}
\ No newline at end of file
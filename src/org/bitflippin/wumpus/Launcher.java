@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+public class Launcher  {
+
+	// Argument selecting batch simulation instead of a window
+	public static final String HEADLESS = "--headless";
+
+	// Argument selecting game server instead of a window, see Server
+	public static final String SERVE = "--serve";
+
+	// Argument naming file to append played games to, see GameLog
+	public static final String RECORD = "--record";
+
+	// Largest cave shown in a window, in cells
+	// Window keeps a back buffer of whole cave, 50 pixels a cell
+	// Larger caves play with HEADLESS or SERVE
+	public static final int MAX_WIDTH = 64;
+	public static final int MAX_HEIGHT = 40;
+
+	// Open the game in a window, or with HEADLESS first run
+	// Simulator with the remaining arguments and no AWT at all,
+	// or with SERVE first run Server with them likewise
+	// Otherwise optional arguments are RECORD and file, then cave width and height,
+	// both or neither; anything else prints usage
+	public static void main(String args[]) throws ReflectiveOperationException, IOException  {
+		long t = System.nanoTime();
+		if(args.length > 0 && args[0].equals(HEADLESS))  {
+			Simulator.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+		if(args.length > 0 && args[0].equals(SERVE))  {
+			Server.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+		String record = null;
+		if(args.length > 1 && args[0].equals(RECORD))  {
+			record = args[1];
+			args = Arrays.copyOfRange(args, 2, args.length);
+		}
+		int w = args.length == 2 ? size(args[0]) : Board.WIDTH;
+		int h = args.length == 2 ? size(args[1]) : Board.HEIGHT;
+		if(args.length == 1 || args.length > 2 || w < 1 || h < 1)  {
+			System.err.println("Usage: Launcher [" + RECORD + " file] [width height]");
+			System.err.println("       Launcher " + HEADLESS + " [simulator arguments]");
+			System.err.println("       Launcher " + SERVE + " [port [width height]]");
+			return;
+		}
+		if(w > MAX_WIDTH || h > MAX_HEIGHT)  {
+			System.err.println("Window shows caves up to " + MAX_WIDTH + "x" + MAX_HEIGHT + " cells, not " + w + "x" + h);
+			System.err.println("Play larger caves with " + HEADLESS + " or " + SERVE);
+			return;
+		}
+		GameLog log = null;
+		if(record != null)  {
+			log = new GameLog(Paths.get(record));
+			log.setFlushing(true);
+		}
+		GameWindow.open(w, h, t, log);
+	}
+
+	// Cave size given as s, or 0 if not a whole number
+	private static int size(String s)  {
+		try  { return Integer.parseInt(s); }
+		catch(NumberFormatException e)  { return 0; }
+	}
+
+}
\ No newline at end of file
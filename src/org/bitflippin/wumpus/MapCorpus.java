@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+// Fixed set of same-sized maps in one file, for playing bots against same caves
+// File is map files of MapFile back to back, so map i sits at i times record length
+// Memory mapped once; maps handed out are views, safe to use from many threads
+public class MapCorpus  {
+
+	// Most bytes mapped in one piece, as buffers index by int
+	private static final long CHUNK = Integer.MAX_VALUE;
+
+	// Most maps generated at once while creating corpus
+	private static final int BATCH = 4096;
+
+	// Most cells in maps generated at once
+	// Each is a whole Board of cells until packed, so large caves come fewer at a time
+	private static final long CELLS = 1 << 22;
+
+	// Dimensions shared by every map
+	private int width;
+	private int height;
+	public int getWidth()  { return width; }
+	public int getHeight()  { return height; }
+
+	// Number of maps
+	private long size;
+	public long size()  { return size; }
+
+	// Bytes per map, header included
+	private int record;
+
+	// Whole maps per mapped piece of file
+	private long perChunk;
+
+	// File mapped in pieces of perChunk maps each
+	private ByteBuffer chunks[];
+
+	// Open corpus in file f
+	// First map fixes size of all of them
+	public MapCorpus(Path f) throws IOException  {
+		try(FileChannel c = FileChannel.open(f, StandardOpenOption.READ))  {
+			PackedBoard p = MapFile.read(c);
+			width = p.getWidth();
+			height = p.getHeight();
+			record = MapFile.size(width, height);
+			long n = c.size();
+			if(n % record != 0) throw new IOException(f + " is not whole " + width + "x" + height + " maps");
+			size = n / record;
+			perChunk = CHUNK / record;
+			chunks = new ByteBuffer[(int)((size + perChunk - 1) / perChunk)];
+			for(int i = 0; i < chunks.length; i++)  {
+				long at = i * perChunk * record;
+				chunks[i] = c.map(FileChannel.MapMode.READ_ONLY, at, Math.min(perChunk * record, n - at));
+			}
+		}
+	}
+
+	// Map i, viewed in place
+	public PackedBoard get(long i)  {
+		if(i < 0 || i >= size) throw new IndexOutOfBoundsException("Map " + i + " of " + size);
+		PackedBoard p;
+		try  {
+			p = MapFile.view(chunks[(int)(i / perChunk)], (int)(i % perChunk) * record);
+		}
+		catch(IOException e)  {
+			throw new UncheckedIOException("Map " + i + " unreadable", e);
+		}
+		if(p.getWidth() != width || p.getHeight() != height)
+			throw new UncheckedIOException(new IOException("Map " + i + " is " + p.getWidth() + "x" + p.getHeight() + ", not " + width + "x" + height));
+		return p;
+	}
+
+	// Generate n maps from generator g into file f, replacing whatever was there
+	// Map i comes from seed plus i, so same seed gives same corpus
+	// Maps createMap can't generate are left out; return number written
+	public static long create(Path f, long n, Generator g, long seed) throws IOException  {
+		long written = 0;
+		long cells = (long)(g.getWidth()) * g.getHeight();
+		int batch = (int)(Math.max(1, Math.min(BATCH, CELLS / cells)));
+		ByteBuffer b = ByteBuffer.allocateDirect(batch * MapFile.size(g.getWidth(), g.getHeight()));
+		try(FileChannel c = FileChannel.open(f, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))  {
+			for(long i = 0; i < n; i += batch)  {
+				Board maps[] = LongStream.range(i, Math.min(i + batch, n)).parallel()
+					.mapToObj(k -> g.candidate(seed + k))
+					.toArray(Board[]::new);
+				for(Board m : maps)  {
+					if(m == null) continue;
+					MapFile.put(new PackedBoard(m), b);
+					written++;
+				}
+				b.flip();
+				while(b.hasRemaining()) c.write(b);
+				b.clear();
+			}
+		}
+		return written;
+	}
+
+	// Create corpus, or play agent on every map of one
+	// Arguments: create file maps [pits [tunnels [width height [seed]]]]
+	//        or: play file [seed [threads [agent class]]]
+	public static void main(String args[]) throws IOException, ReflectiveOperationException  {
+		if(args.length < 2)  {
+			System.err.println("Usage: MapCorpus create file maps [pits [tunnels [width height [seed]]]]");
+			System.err.println("       MapCorpus play file [seed [threads [agent class]]]");
+			return;
+		}
+		Path f = Paths.get(args[1]);
+		long start = System.nanoTime();
+		if(args[0].equals("create"))  {
+			long n = args.length > 2 ? Long.parseLong(args[2]) : 1000000;
+			int p = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+			double t = args.length > 4 ? Double.parseDouble(args[4]) : Board.SIMPLE;
+			int w = args.length > 6 ? Integer.parseInt(args[5]) : Board.WIDTH;
+			int h = args.length > 6 ? Integer.parseInt(args[6]) : Board.HEIGHT;
+			long seed = args.length > 7 ? Long.parseLong(args[7]) : 0;
+			long k = create(f, n, new Generator(w, h, p, t), seed);
+			System.out.printf("%d %dx%d maps written to %s in %.1f s%n", k, w, h, f, (System.nanoTime() - start) / 1e9);
+			return;
+		}
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		MapCorpus c = new MapCorpus(f);
+		Simulator sim = new Simulator(c.getWidth(), c.getHeight(), 0, 0);
+		if(args.length > 4) sim.setAgents(Simulator.agents(args[4]));
+		Statistics s = sim.run(c, seed, pool);
+		double secs = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%s: %d %dx%d maps, seed %d, %d threads%n", f, c.size(), c.getWidth(), c.getHeight(), seed, threads);
+		System.out.print(s);
+		System.out.printf("%.0f games/s%n", s.getGames() / secs);
+		pool.shutdown();
+	}
+
+}
\ No newline at end of file
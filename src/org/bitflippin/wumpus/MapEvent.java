@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// JFR event for one call of Board.createMap
+// Committed by Metrics only when ENABLED
+@Name("org.bitflippin.wumpus.CreateMap")
+@Label("Create Map")
+@Category("Wumpus")
+class MapEvent extends jdk.jfr.Event  {
+
+	@Label("Width")
+	int width;
+
+	@Label("Height")
+	int height;
+
+	@Label("Pits")
+	int pits;
+
+	@Label("Tunnel Probability")
+	double tunnels;
+
+	@Label("Layouts Tried")
+	int layouts;
+
+	@Label("Created")
+	boolean created;
+
+	@Label("Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long time;
+
+	@Label("Placement Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long placement;
+
+}
\ No newline at end of file
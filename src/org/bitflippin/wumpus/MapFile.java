@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Binary format for saving and sharing maps
+// Header, then cells exactly as PackedBoard keeps them, so reading is a view
+public class MapFile  {
+
+	// Leading bytes of every map, "WUMP" in ascii
+	public static final int MAGIC = 0x57554d50;
+
+	// Format written by this class, bumped when layout changes
+	public static final int VERSION = 1;
+
+	// Bytes before cells: magic int, then version, width, height as shorts
+	// All big endian
+	public static final int HEADER = 10;
+
+	// Largest width or height header can carry
+	public static final int MAX_SIDE = 0x7fff;
+
+	// Bytes taken by w by h map, header included
+	public static int size(int w, int h)  { return HEADER + w * h; }
+
+	// Write header for w by h map at position i of b
+	public static void putHeader(ByteBuffer b, int i, int w, int h)  {
+		if(w > MAX_SIDE || h > MAX_SIDE) throw new IllegalArgumentException("Map " + w + "x" + h + " too large to save");
+		b.order(ByteOrder.BIG_ENDIAN);
+		b.putInt(i, MAGIC);
+		b.putShort(i + 4, (short)(VERSION));
+		b.putShort(i + 6, (short)(w));
+		b.putShort(i + 8, (short)(h));
+	}
+
+	// Check header at position i of b
+	// Return cells following it
+	// Require b be big endian
+	private static int check(ByteBuffer b, int i) throws IOException  {
+		if(b.limit() - i < HEADER || b.getInt(i) != MAGIC) throw new IOException("Not a map");
+		int v = b.getShort(i + 4);
+		if(v != VERSION) throw new IOException("Map version " + v + " not supported");
+		int w = b.getShort(i + 6);
+		int h = b.getShort(i + 8);
+		if(w < 1 || h < 1) throw new IOException("Map " + w + "x" + h + " has no cells");
+		return w * h;
+	}
+
+	// Map whose header starts at position i of b
+	// Cells are shared with b, not copied
+	// Leaves b itself untouched, so threads may view maps of one buffer at once
+	public static PackedBoard view(ByteBuffer b, int i) throws IOException  {
+		ByteBuffer c = b.duplicate().order(ByteOrder.BIG_ENDIAN);
+		int n = check(c, i);
+		if(c.limit() - i - HEADER < n) throw new IOException("Map cut short");
+		int w = c.getShort(i + 6);
+		int h = c.getShort(i + 8);
+		c.limit(i + HEADER + n);
+		c.position(i + HEADER);
+		return new PackedBoard(w, h, c.slice());
+	}
+
+	// Append map p to b at its position
+	public static void put(PackedBoard p, ByteBuffer b)  {
+		int n = p.getWidth() * p.getHeight();
+		putHeader(b, b.position(), p.getWidth(), p.getHeight());
+		b.position(b.position() + HEADER);
+		ByteBuffer c = p.getCells().duplicate();
+		c.limit(n);
+		c.position(0);
+		b.put(c);
+	}
+
+	// Write map p to c
+	public static void write(PackedBoard p, WritableByteChannel c) throws IOException  {
+		ByteBuffer b = ByteBuffer.allocate(size(p.getWidth(), p.getHeight()));
+		put(p, b);
+		b.flip();
+		while(b.hasRemaining()) c.write(b);
+	}
+
+	// Read next map from c into buffer of its own
+	public static PackedBoard read(ReadableByteChannel c) throws IOException  {
+		ByteBuffer h = ByteBuffer.allocate(HEADER);
+		fill(h, c);
+		ByteBuffer b = ByteBuffer.allocate(check(h, 0));
+		fill(b, c);
+		b.rewind();
+		return new PackedBoard(h.getShort(6), h.getShort(8), b);
+	}
+
+	// Read from c until b is full
+	private static void fill(ByteBuffer b, ReadableByteChannel c) throws IOException  {
+		while(b.hasRemaining())
+			if(c.read(b) < 0) throw new EOFException("Map cut short");
+	}
+
+	// Save map p to file f, replacing whatever was there
+	public static void save(PackedBoard p, Path f) throws IOException  {
+		try(FileChannel c = FileChannel.open(f, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))  {
+			write(p, c);
+		}
+	}
+
+	// Map saved in file f, memory mapped rather than read
+	// Mapping stays valid after channel closes
+	public static PackedBoard map(Path f) throws IOException  {
+		try(FileChannel c = FileChannel.open(f, StandardOpenOption.READ))  {
+			return view(c.map(FileChannel.MapMode.READ_ONLY, 0, c.size()), 0);
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MapPool  {
+
+	// Ready maps kept for each combination of settings
+	public static final int CAPACITY = 4;
+
+	// Dimensions of every map
+	private int width;
+	private int height;
+
+	// Ready maps for one combination of settings
+	// Filling is set while worker has a refill of them queued or running
+	private static class Pool  {
+		final BlockingQueue<Board> maps = new ArrayBlockingQueue<>(CAPACITY);
+		final AtomicBoolean filling = new AtomicBoolean();
+	}
+
+	// Ready maps by pits, tunnels and band
+	private Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+	// Daemon thread generating maps into pools
+	private ExecutorService worker = Executors.newSingleThreadExecutor(r ->  {
+		Thread t = new Thread(r, "MapPool refill");
+		t.setDaemon(true);
+		return t;
+	});
+
+	// Source of map seeds for worker and misses alike
+	private SplittableRandom random;
+
+	// Maps handed out at once, and those generated while caller waited
+	private LongAdder hits = new LongAdder();
+	private LongAdder misses = new LongAdder();
+	public long getHits()  { return hits.sum(); }
+	public long getMisses()  { return misses.sum(); }
+
+	// Maps generated by worker, and nanoseconds spent, summed and longest
+	private LongAdder refills = new LongAdder();
+	private LongAdder refillTime = new LongAdder();
+	private LongAccumulator refillLongest = new LongAccumulator(Math::max, 0);
+	public long getRefills()  { return refills.sum(); }
+
+	// Generate empty pools of w by h maps
+	// Let seed start every random choice
+	public MapPool(int w, int h, long seed)  {
+		width = w;
+		height = h;
+		random = new SplittableRandom(seed);
+	}
+
+	// Fraction of takes served from pool
+	public double hitRate()  {
+		long n = getHits() + getMisses();
+		return n == 0 ? 0 : (double)(getHits()) / n;
+	}
+
+	// Mean and longest milliseconds worker took per map
+	public double meanRefill()  {
+		long n = getRefills();
+		return n == 0 ? 0 : refillTime.sum() / 1e6 / n;
+	}
+	public double longestRefill()  { return refillLongest.get() / 1e6; }
+
+	// Start filling pool for settings, so first take hits
+	// Let p and t be as in Board.createMap, b band as in Difficulty
+	public void prepare(int p, double t, int b)  { pool(p, t, b); }
+
+	// Ready map for settings, generated now if pool is empty
+	// Pool is topped up in background either way
+	// Null only if no map in band b can be generated
+	public Board take(int p, double t, int b)  {
+		Board m = poll(p, t, b);
+		if(m == null)  {
+			misses.increment();
+			m = generate(p, t, b);
+		}
+		return m;
+	}
+
+	// Ready map for settings, or null at once if pool is empty
+	// Pool is topped up in background either way
+	// Lets event thread start play on a hit and leave misses to take elsewhere
+	public Board poll(int p, double t, int b)  {
+		Board m = pool(p, t, b).maps.poll();
+		if(m != null) hits.increment();
+		refill(p, t, b);
+		return m;
+	}
+
+	// Pool for settings, created and queued for filling on first use
+	private Pool pool(int p, double t, int b)  {
+		String k = p + "/" + t + "/" + b;
+		Pool q = pools.get(k);
+		if(q != null) return q;
+		q = new Pool();
+		Pool o = pools.putIfAbsent(k, q);
+		if(o != null) return o;
+		refill(p, t, b);
+		return q;
+	}
+
+	// Have worker fill pool for settings to capacity
+	// At most one refill per pool is queued, so takes can't pile up work
+	private void refill(int p, double t, int b)  {
+		Pool q = pool(p, t, b);
+		if(!q.filling.compareAndSet(false, true)) return;
+		worker.execute(() ->  {
+			boolean more = true;
+			try  {
+				while(more && q.maps.remainingCapacity() > 0)  {
+					long start = System.nanoTime();
+					Board m = generate(p, t, b);
+					long time = System.nanoTime() - start;
+					refills.increment();
+					refillTime.add(time);
+					refillLongest.accumulate(time);
+					more = m != null && q.maps.offer(m);
+				}
+			}
+			finally  {
+				q.filling.set(false);
+			}
+			// A take may have found the flag still set after the last check
+			if(more && q.maps.remainingCapacity() > 0) refill(p, t, b);
+		});
+	}
+
+	// Generate one map for settings; null if none fits band
+	private Board generate(int p, double t, int b)  {
+		long s;
+		synchronized(random)  { s = random.nextLong(); }
+		return new Generator(width, height, p, t).generate(b, s);
+	}
+
+	public String toString()  {
+		return String.format("%d hits, %d misses (%.1f%% hit), %d refills, %.2f ms mean, %.2f ms longest%n",
+			getHits(), getMisses(), 100 * hitRate(), getRefills(), meanRefill(), longestRefill());
+	}
+
+}
\ No newline at end of file
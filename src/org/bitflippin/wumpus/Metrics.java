@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Counters and timings of map generation, movement and drawing
+// Off unless PROPERTY is true; callers test ENABLED first, which the JIT folds away
+// When on, counted here for JMX and also committed as JFR events
+public class Metrics implements MetricsMXBean  {
+
+	// System property turning metrics on, as in -Dwumpus.metrics=true
+	public static final String PROPERTY = "wumpus.metrics";
+
+	// Whether metrics are collected; fixed at startup
+	public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+	// Name of MBean on platform server
+	public static final String NAME = "org.bitflippin.wumpus:type=Metrics";
+
+	// The only instance, registered with JMX if ENABLED
+	private static final Metrics METRICS = new Metrics();
+	public static Metrics get()  { return METRICS; }
+
+	static  {
+		if(ENABLED)  {
+			try  {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(METRICS, new ObjectName(NAME));
+			}
+			catch(JMException e)  {
+				System.err.println("Metrics not registered: " + e.getMessage());
+			}
+		}
+	}
+
+	// Map generation; times in nanoseconds
+	private LongAdder maps = new LongAdder();
+	private LongAdder failedMaps = new LongAdder();
+	private LongAdder layouts = new LongAdder();
+	private LongAdder rejectedLayouts = new LongAdder();
+	private LongAdder mapTime = new LongAdder();
+	private LongAdder placementTime = new LongAdder();
+
+	// Movement
+	private LongAdder neighborCalls = new LongAdder();
+	private LongAdder propagateCalls = new LongAdder();
+
+	// Drawing and input; times in nanoseconds
+	private LongAdder frames = new LongAdder();
+	private LongAdder cellsDrawn = new LongAdder();
+	private LongAdder drawTime = new LongAdder();
+	private LongAdder paints = new LongAdder();
+	private LongAdder paintTime = new LongAdder();
+	private LongAdder keys = new LongAdder();
+	private LongAdder keyTime = new LongAdder();
+	private LongAccumulator keyLongest = new LongAccumulator(Math::max, 0);
+
+	public long getMaps()  { return maps.sum(); }
+	public long getFailedMaps()  { return failedMaps.sum(); }
+	public long getLayouts()  { return layouts.sum(); }
+	public long getRejectedLayouts()  { return rejectedLayouts.sum(); }
+	public double getMapMillis()  { return mapTime.sum() / 1e6; }
+	public double getPlacementMillis()  { return placementTime.sum() / 1e6; }
+	public long getNeighborCalls()  { return neighborCalls.sum(); }
+	public long getPropagateCalls()  { return propagateCalls.sum(); }
+	public long getFrames()  { return frames.sum(); }
+	public long getCellsDrawn()  { return cellsDrawn.sum(); }
+	public double getDrawMillis()  { return drawTime.sum() / 1e6; }
+	public long getPaints()  { return paints.sum(); }
+	public double getPaintMillis()  { return paintTime.sum() / 1e6; }
+	public long getKeys()  { return keys.sum(); }
+	public double getLongestKeyMillis()  { return keyLongest.get() / 1e6; }
+
+	public double getMeanKeyMillis()  {
+		long n = keys.sum();
+		return n == 0 ? 0 : keyTime.sum() / 1e6 / n;
+	}
+
+	public void reset()  {
+		LongAdder all[] = { maps, failedMaps, layouts, rejectedLayouts, mapTime, placementTime,
+			neighborCalls, propagateCalls, frames, cellsDrawn, drawTime, paints, paintTime, keys, keyTime };
+		for(LongAdder a : all)
+			a.reset();
+		keyLongest.reset();
+	}
+
+	// Count call of createMap on b that took n layouts
+	// Let t be tunnel probability, ok whether map was made,
+	// start when call began and placing nanoseconds spent placing
+	static void created(Board b, double t, int n, boolean ok, long start, long placing)  {
+		long time = System.nanoTime() - start;
+		METRICS.maps.increment();
+		if(!ok) METRICS.failedMaps.increment();
+		METRICS.layouts.add(n);
+		METRICS.rejectedLayouts.add(ok ? n - 1 : n);
+		METRICS.mapTime.add(time);
+		METRICS.placementTime.add(placing);
+		MapEvent e = new MapEvent();
+		if(e.shouldCommit())  {
+			e.width = b.getWidth();
+			e.height = b.getHeight();
+			e.pits = b.getPits();
+			e.tunnels = t;
+			e.layouts = n;
+			e.created = ok;
+			e.time = time;
+			e.placement = placing;
+			e.commit();
+		}
+	}
+
+	// Count call of Cell.neighbor and Cell.propagate
+	static void neighbor()  { METRICS.neighborCalls.increment(); }
+	static void propagate()  { METRICS.propagateCalls.increment(); }
+
+	// Count frame of n cells drawn in time nanoseconds
+	// Let whole be whether entire board was drawn
+	static void drawn(int n, boolean whole, long time)  {
+		METRICS.frames.increment();
+		METRICS.cellsDrawn.add(n);
+		METRICS.drawTime.add(time);
+		FrameEvent e = new FrameEvent();
+		if(e.shouldCommit())  {
+			e.cells = n;
+			e.whole = whole;
+			e.time = time;
+			e.commit();
+		}
+	}
+
+	// Count paint taking time nanoseconds
+	static void painted(long time)  {
+		METRICS.paints.increment();
+		METRICS.paintTime.add(time);
+	}
+
+	// Count key k whose effect was painted time nanoseconds after it was pressed
+	static void keyed(int k, long time)  {
+		METRICS.keys.increment();
+		METRICS.keyTime.add(time);
+		METRICS.keyLongest.accumulate(time);
+		KeyLatencyEvent e = new KeyLatencyEvent();
+		if(e.shouldCommit())  {
+			e.key = k;
+			e.latency = time;
+			e.commit();
+		}
+	}
+
+	// Several lines of report
+	public String toString()  {
+		StringBuilder s = new StringBuilder();
+		s.append(String.format("maps     %d made, %d failed, %d layouts, %d rejected%n", getMaps() - getFailedMaps(), getFailedMaps(), getLayouts(), getRejectedLayouts()));
+		s.append(String.format("         %.1f ms, %.1f ms placing%n", getMapMillis(), getPlacementMillis()));
+		s.append(String.format("calls    %d neighbor, %d propagate%n", getNeighborCalls(), getPropagateCalls()));
+		if(getFrames() > 0) s.append(String.format("frames   %d, %d cells, %.1f ms drawing, %.1f ms painting%n", getFrames(), getCellsDrawn(), getDrawMillis(), getPaintMillis()));
+		if(getKeys() > 0) s.append(String.format("keys     %d, %.2f ms mean, %.2f ms longest to paint%n", getKeys(), getMeanKeyMillis(), getLongestKeyMillis()));
+		return s.toString();
+	}
+
+}
\ No newline at end of file
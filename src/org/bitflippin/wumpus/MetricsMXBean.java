@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+// Counters and timings of Metrics as seen over JMX
+// Times are summed milliseconds unless named otherwise
+public interface MetricsMXBean  {
+
+	// Calls to Board.createMap, and those that found no layout
+	public long getMaps();
+	public long getFailedMaps();
+
+	// Layouts tried by createMap, and those placements didn't fit
+	public long getLayouts();
+	public long getRejectedLayouts();
+
+	// Time in createMap, and in placement scans within it
+	public double getMapMillis();
+	public double getPlacementMillis();
+
+	// Calls to Cell.neighbor and Cell.propagate
+	public long getNeighborCalls();
+	public long getPropagateCalls();
+
+	// Frames drawn into buffer by Renderer.update, cells drawn in them, and time taken
+	public long getFrames();
+	public long getCellsDrawn();
+	public double getDrawMillis();
+
+	// Calls to Wumpus.paintComponent and time taken
+	public long getPaints();
+	public double getPaintMillis();
+
+	// Keys pressed in play, and time from keyPressed to next paint, mean and longest
+	public long getKeys();
+	public double getMeanKeyMillis();
+	public double getLongestKeyMillis();
+
+	// Zero every counter
+	public void reset();
+
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.util.Arrays;
+
+// What a batch of moves did, filled in by Board.apply
+// Reuse one for every batch to avoid garbage
+public class MoveResult  {
+
+	// Moves carried out before batch ran out or game ended
+	private int moves;
+	public int getMoves()  { return moves; }
+
+	// Cells uncovered by batch, in order, as y * width + x like PackedBoard
+	// Tunnels count once, when first of their halves is uncovered
+	private int revealed[] = new int[16];
+	private int count;
+	public int getRevealedCount()  { return count; }
+	public int getRevealed(int i)  { return revealed[i]; }
+
+	// Where hunter ended up, or how game ended
+	// Message is null and x, y hunter's position while game goes on
+	private String message;
+	private int x;
+	private int y;
+	public String getMessage()  { return message; }
+	public boolean isAlive()  { return message == null; }
+	public int getX()  { return x; }
+	public int getY()  { return y; }
+
+	// Forget previous batch
+	void clear()  {
+		moves = 0;
+		count = 0;
+	}
+
+	// Note cell at position p uncovered
+	void reveal(int p)  {
+		if(count == revealed.length) revealed = Arrays.copyOf(revealed, count * 2);
+		revealed[count++] = p;
+	}
+
+	// Note state of board b after n moves
+	void finish(Board b, int n)  {
+		moves = n;
+		Cell h = b.getHunter();
+		message = h == null ? b.getMessage() : null;
+		x = h == null ? -1 : h.x;
+		y = h == null ? -1 : h.y;
+	}
+
+}
\ No newline at end of file
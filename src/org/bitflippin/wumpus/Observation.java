@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+public class Observation  {
+
+	// Board observed; not handed out, agents see only what player sees
+	private Board board;
+
+	// Game observed instead of board, when playing packed maps
+	private PackedGame game;
+
+	// Generate observation of board b
+	// One is reused for every turn of every game on b
+	public Observation(Board b)  { board = b; }
+
+	// Generate observation of game g
+	// One is reused for every turn of every map g plays
+	public Observation(PackedGame g)  { game = g; }
+
+	// Turns played so far this game
+	private int turn;
+	public int getTurn()  { return turn; }
+
+	// Cell occupied by hunter at start of turn
+	private Cell hunter;
+
+	// Same for packed game: hunter's position, and map it is on
+	private int position;
+	private PackedBoard map;
+
+	// Refresh from board as game starts
+	void start()  {
+		turn = 0;
+		look();
+	}
+
+	// Refresh from board after each turn
+	void update()  {
+		turn++;
+		look();
+	}
+
+	// Note where hunter stands now
+	private void look()  {
+		if(game == null) hunter = board.getHunter();
+		else  {
+			position = game.getHunter();
+			map = game.getBoard();
+		}
+	}
+
+	// Dimensions of map in cells
+	public int getWidth()  { return game == null ? board.getWidth() : map.getWidth(); }
+	public int getHeight()  { return game == null ? board.getHeight() : map.getHeight(); }
+
+	// Number of pits hidden in map
+	public int getPits()  { return game == null ? board.getPits() : game.getPits(); }
+
+	// Whether hunter is still playing
+	public boolean isAlive()  { return game == null ? hunter != null : position != PackedBoard.NONE; }
+
+	// Where hunter stands, and what hunter perceives there
+	// Require isAlive
+	public int getX()  { return game == null ? hunter.x : map.x(position); }
+	public int getY()  { return game == null ? hunter.y : map.y(position); }
+	public boolean isTunnel()  { return game == null ? hunter.isTunnel() : map.isTunnel(position); }
+	public boolean hasSwamp()  { return game == null ? hunter.hasSwamp() : map.hasSwamp(position); }
+	public boolean hasLair()  { return game == null ? hunter.hasLair() : map.hasLair(position); }
+	public boolean exits(int d)  { return game == null ? hunter.exits(d) : map.exits(position, d); }
+
+	// Whether cell at x, y has been uncovered
+	// For tunnels, whether either half has
+	public boolean isVisible(int x, int y)  {
+		if(game != null)  {
+			int p = map.position(x, y);
+			return game.isVisible(p) || game.isVisible(p | 1);
+		}
+		Cell c = board.getCell(x, y);
+		if(c.visible) return true;
+		return c.isTunnel() && ((Tunnel)(c)).getPartner().visible;
+	}
+
+	// Bits describing cell at x, y as in PackedBoard
+	// Zero unless visible; hunter's start is never marked
+	public int bits(int x, int y)  {
+		if(!isVisible(x, y)) return 0;
+		if(game != null) return map.bits(x, y) & ~PackedBoard.HUNTER;
+		return PackedBoard.pack(board.getCell(x, y), null);
+	}
+
+}
\ No newline at end of file
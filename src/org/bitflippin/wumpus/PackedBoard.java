@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.nio.ByteBuffer;
+
+public class PackedBoard  {
+
+	// Bits of the byte describing each cell
+	// Tunnel cells never carry hazard bits
+	public static final int TUNNEL = 0x01;
+	public static final int EAST = 0x02;
+	public static final int PIT = 0x04;
+	public static final int SWAMP = 0x08;
+	public static final int LAIR = 0x10;
+	public static final int WUMPUS = 0x20;
+	public static final int HUNTER = 0x40;
+
+	// Value returned for missing position
+	public static final int NONE = -1;
+
+	// Dimensions of map in cells
+	private int width;
+	private int height;
+	public int getWidth()  { return width; }
+	public int getHeight()  { return height; }
+
+	// One byte per cell, row by row
+	// Never changed by this class, so views may share it
+	private ByteBuffer cells;
+	public ByteBuffer getCells()  { return cells; }
+
+	// View w by h cells stored in c
+	// Cells are read from absolute positions 0 to w * h - 1
+	public PackedBoard(int w, int h, ByteBuffer c)  {
+		if(c.capacity() < w * h) throw new IllegalArgumentException("Need " + w * h + " bytes for " + w + "x" + h + " board");
+		width = w;
+		height = h;
+		cells = c;
+	}
+
+	// Pack map of board b as it is now
+	// Do this straight after createMap to keep hunter on start room
+	public PackedBoard(Board b)  {
+		this(b.getWidth(), b.getHeight(), ByteBuffer.allocate(b.getWidth() * b.getHeight()));
+		for(int y = 0; y < height; y++)
+			for(int x = 0; x < width; x++)
+				cells.put(y * width + x, (byte)(pack(b.getCell(x, y), b.getStart())));
+	}
+
+	// Bits describing cell c
+	// Let s be hunter's starting room
+	static int pack(Cell c, Room s)  {
+		if(c.isTunnel()) return c.exits(Cell.EAST) ? TUNNEL | EAST : TUNNEL;
+		int k = 0;
+		if(c.hasPit()) k |= PIT;
+		if(c.hasSwamp()) k |= SWAMP;
+		if(c.hasLair()) k |= LAIR;
+		if(c.hasWumpus()) k |= WUMPUS;
+		if(c == s) k |= HUNTER;
+		return k;
+	}
+
+	// Bits of cell at x, y
+	public int bits(int x, int y)  { return cells.get(y * width + x) & 0xff; }
+
+	// Positions name a room or one half of a tunnel
+	// Cell index times two, plus one for south-exiting half
+	public int position(int x, int y)  { return (y * width + x) << 1; }
+	public int x(int p)  { return (p >> 1) % width; }
+	public int y(int p)  { return (p >> 1) / width; }
+
+	// Determine kind of cell at position p
+	public boolean isRoom(int p)  { return (kind(p) & TUNNEL) == 0; }
+	public boolean isTunnel(int p)  { return (kind(p) & TUNNEL) != 0; }
+
+	// Hazards at position p; see Cell
+	public boolean hasPit(int p)  { return (kind(p) & PIT) != 0; }
+	public boolean hasSwamp(int p)  { return (kind(p) & SWAMP) != 0; }
+	public boolean hasLair(int p)  { return (kind(p) & LAIR) != 0; }
+	public boolean hasWumpus(int p)  { return (kind(p) & WUMPUS) != 0; }
+
+	// Bits of cell holding position p
+	private int kind(int p)  { return cells.get(p >> 1) & 0xff; }
+
+	// Position of room hunter starts in
+	// NONE if no room carries HUNTER bit
+	public int getStart()  {
+		for(int i = 0; i < width * height; i++)
+			if((cells.get(i) & HUNTER) != 0) return i << 1;
+		return NONE;
+	}
+
+	// Whether position p exits in direction d
+	// Require d be directional constant from Cell
+	public boolean exits(int p, int d)  {
+		int k = kind(p);
+		if((k & TUNNEL) == 0) return true;
+		boolean east = (k & EAST) != 0;
+		if((p & 1) == 0)
+			return d == Cell.NORTH || d == (east ? Cell.EAST : Cell.WEST);
+		return d == Cell.SOUTH || d == (east ? Cell.WEST : Cell.EAST);
+	}
+
+	// Immediate neighboring position, like Cell.neighbor
+	// NONE if p doesn't exit in direction d
+	public int neighbor(int p, int d)  {
+		if(!exits(p, d)) return NONE;
+		int ax = x(p);
+		int ay = y(p);
+		switch(d)  {
+			case Cell.NORTH:
+				ay = (ay == 0) ? height - 1 : ay - 1;
+				break;
+			case Cell.EAST:
+				ax = (ax + 1) % width;
+				break;
+			case Cell.SOUTH:
+				ay = (ay + 1) % height;
+				break;
+			case Cell.WEST:
+				ax = (ax == 0) ? width - 1 : ax - 1;
+				break;
+		}
+		int n = position(ax, ay);
+		if(!exits(n, (d + 2) % 4)) n |= 1;
+		return n;
+	}
+
+	// Nearest room reached from p going away from position c, like Cell.propagate
+	// NONE if tunnels loop back to p without reaching room
+	public int propagate(int p, int c)  {
+		int q = p;
+		while(isTunnel(q))  {
+			int n = NONE;
+			for(int d = 0; d < 4 && n == NONE; d++)  {
+				n = neighbor(q, d);
+				if(n == c) n = NONE;
+			}
+			if(n == NONE || n == p) return NONE;
+			c = q;
+			q = n;
+		}
+		return q;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.util.Arrays;
+
+// Game played straight on a PackedBoard, without building cells
+// Same moves give same outcome as on Board; one instance plays many maps in turn
+public class PackedGame  {
+
+	// Map being played
+	private PackedBoard board;
+	public PackedBoard getBoard()  { return board; }
+
+	// Position of hunter, NONE once game ends
+	private int hunter = PackedBoard.NONE;
+	public int getHunter()  { return hunter; }
+
+	// Pits hidden in map, counted as game starts
+	private int pits;
+	public int getPits()  { return pits; }
+
+	// Outcome as in Board.getMessage
+	// Null while hunter is alive
+	private String message;
+	public String getMessage()  { return message; }
+
+	// Uncovered positions, one bit each
+	// Grown as larger maps come along, never shrunk
+	private long visible[] = new long[0];
+
+	// Whether position p has been uncovered
+	public boolean isVisible(int p)  { return (visible[p >> 6] & (1L << p)) != 0; }
+
+	// Uncover position p
+	private void reveal(int p)  { visible[p >> 6] |= 1L << p; }
+
+	// Begin game on map b, hunter on start room
+	public void start(PackedBoard b)  {
+		board = b;
+		int n = (b.getWidth() * b.getHeight() * 2 + 63) >> 6;
+		if(visible.length < n) visible = new long[n];
+		else Arrays.fill(visible, 0, n, 0);
+		message = null;
+		pits = 0;
+		for(int y = 0; y < b.getHeight(); y++)
+			for(int x = 0; x < b.getWidth(); x++)
+				if((b.bits(x, y) & PackedBoard.PIT) != 0) pits++;
+		hunter = b.getStart();
+		if(hunter != PackedBoard.NONE) reveal(hunter);
+	}
+
+	// Carry out move m of a HunterAgent, like Board.apply
+	public void apply(int m)  {
+		if(hunter == PackedBoard.NONE) return;
+		int c = board.neighbor(hunter, m & HunterAgent.DIRECTION);
+		if(c == PackedBoard.NONE) return;
+		reveal(c);
+		if((m & HunterAgent.SHOOT) != 0)
+			end(board.hasWumpus(c) ? Board.MSG_SHOT : Board.MSG_EATEN);
+		else if(board.hasWumpus(c))
+			end(Board.MSG_EATEN);
+		else if(board.hasPit(c))
+			end(Board.MSG_FALLEN);
+		else
+			hunter = c;
+	}
+
+	// Stop play with message m
+	private void end(String m)  {
+		message = m;
+		hunter = PackedBoard.NONE;
+	}
+
+	// Let agent a play until game ends or n moves are made, like Board.play
+	// Let o be observation of this game, reused every turn
+	public int play(HunterAgent a, Observation o, int n)  {
+		o.start();
+		a.start(o);
+		int i = 0;
+		while(hunter != PackedBoard.NONE && i < n)  {
+			apply(a.act(o));
+			o.update();
+			i++;
+		}
+		return i;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.util.SplittableRandom;
+
+public class RandomAgent implements HunterAgent  {
+
+	// Source of every choice
+	private SplittableRandom random;
+
+	// Generate agent drawing choices from r
+	public RandomAgent(SplittableRandom r)  { random = r; }
+
+	// Generate agent with unpredictable choices
+	public RandomAgent()  { this(new SplittableRandom()); }
+
+	// Wander through random exit
+	// Shoot instead one turn in ten
+	public int act(Observation o)  {
+		int d = random.nextInt(4);
+		while(!o.exits(d))
+			d = (d + 1) % 4;
+		if(random.nextInt(10) == 0) d |= SHOOT;
+		return d;
+	}
+
+}
\ No newline at end of file
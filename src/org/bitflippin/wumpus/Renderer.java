@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.io.IOException;
+import java.net.URL;
+
+import javax.imageio.ImageIO;
+
+public class Renderer  {
+
+	// Image constants
+	private static final int ROOM = 0;
+	private static final int SWAMP = 1;
+	private static final int PIT = 2;
+	private static final int WUMPUS = 3;
+	private static final int NE_TUNNEL = 4;
+	private static final int SE_TUNNEL = 5;
+	private static final int NW_TUNNEL = 6;
+	private static final int SW_TUNNEL = 7;
+	private static final int NORMAL_HUNTER = 8;
+	private static final int SHOOTING_HUNTER = 9;
+	private static final int HIDDEN = 10;
+	private static final int DOT = 11;
+
+	// Dimensions of cells in pixels
+	// Should match dimensions of pictures in sprite sheet
+	public static final int WIDTH = 50;
+	public static final int HEIGHT = 50;
+
+	// Classpath resource holding every picture
+	// Pictures sit in order of image constants, SHEET_COLUMNS to a row
+	private static final String SHEET = "/sprites.png";
+	private static final int SHEET_COLUMNS = 6;
+	private static final int PICTURES = 12;
+
+	// Pictures cut from sheet
+	private Image pictures[] = new Image[PICTURES];
+
+	// Board being drawn
+	private Board board;
+	public void setBoard(Board b)  { board = b; }
+
+	// Component notified as images finish loading
+	private ImageObserver observer;
+
+	// Generate renderer for board b
+	// Let o be component the board is drawn on
+	public Renderer(Board b, ImageObserver o)  {
+		board = b;
+		observer = o;
+	}
+
+	// Decode sprite sheet from classpath and build atlas
+	// Safe on any thread, and headless; draw only once it returns
+	public void loadResources() throws IOException  {
+		URL u = Renderer.class.getResource(SHEET);
+		if(u == null) throw new IOException("Missing resource " + SHEET);
+		BufferedImage s = ImageIO.read(u);
+		if(s == null) throw new IOException("Unreadable resource " + SHEET);
+		if(s.getWidth() < SHEET_COLUMNS * WIDTH || s.getHeight() < (PICTURES + SHEET_COLUMNS - 1) / SHEET_COLUMNS * HEIGHT)
+			throw new IOException("Resource " + SHEET + " too small");
+		for(int k = 0; k < PICTURES; k++)
+			pictures[k] = s.getSubimage((k % SHEET_COLUMNS) * WIDTH, (k / SHEET_COLUMNS) * HEIGHT, WIDTH, HEIGHT);
+		compose();
+	}
+
+	// Draw cells changed since last update onto g
+	// Ask target to repaint just their area, unless target is null
+	// Whole board is drawn after new map or reveal
+	public void update(Graphics g, Component target)  {
+		long start = Metrics.ENABLED ? System.nanoTime() : 0;
+		boolean whole = board.isStale();
+		int n = whole ? board.getWidth() * board.getHeight() : board.getDirtyCount();
+		if(whole)  {
+			draw(g);
+			if(target != null) target.repaint();
+		}
+		else
+			for(int i = 0; i < board.getDirtyCount(); i++)  {
+				Cell c = board.getDirty(i);
+				draw(g, c);
+				if(target != null) target.repaint(c.x * WIDTH, c.y * HEIGHT, WIDTH, HEIGHT);
+			}
+		board.clean();
+		if(Metrics.ENABLED && n > 0) Metrics.drawn(n, whole, System.nanoTime() - start);
+	}
+
+	// Draw every cell of board onto g
+	public void draw(Graphics g)  {
+		for(int x = 0; x < board.getWidth(); x++)
+			for(int y = 0; y < board.getHeight(); y++)
+				draw(g, board.getCell(x, y));
+	}
+
+	// Draw cell c onto g as one blit from atlas
+	// Let g be graphics context of applet or paint parameter
+	public void draw(Graphics g, Cell c)  {
+		int t = tile(c);
+		int sx = c.x * WIDTH;
+		int sy = c.y * HEIGHT;
+		int tx = (t % COLUMNS) * WIDTH;
+		int ty = (t / COLUMNS) * HEIGHT;
+		g.drawImage(atlas, sx, sy, sx + WIDTH, sy + HEIGHT, tx, ty, tx + WIDTH, ty + HEIGHT, observer);
+	}
+
+	// Layout of atlas of pre-composited tiles, COLUMNS tiles wide
+	// Hidden room, then rooms by base, lair, wumpus and hunter pose,
+	// then tunnels by orientation and state of north and south half
+	private static final int COLUMNS = 10;
+	private static final int HIDDEN_TILE = 0;
+	private static final int ROOM_TILES = 1;
+	private static final int TUNNEL_TILES = ROOM_TILES + 3 * 2 * 2 * 3;
+	private static final int TILES = TUNNEL_TILES + 2 * 4 * 4;
+
+	// Hunter poses: absent, walking, about to shoot
+	// Tunnel half states add one below these, for hidden
+	private static final int NO_HUNTER = 0;
+	private static final int WALKING = 1;
+	private static final int AIMING = 2;
+
+	// Every tile state composited once from pictures
+	private BufferedImage atlas;
+
+	// Tile showing cell c as it is now
+	private int tile(Cell c)  {
+		int pose = board.isShooting() ? AIMING : WALKING;
+		if(c.isRoom())  {
+			if(!c.visible) return HIDDEN_TILE;
+			int base = c.hasPit() ? PIT : c.hasSwamp() ? SWAMP : ROOM;
+			return roomTile(base, c.hasLair(), c.hasWumpus(), c.hunter ? pose : NO_HUNTER);
+		}
+		Tunnel n = (Tunnel)(c);
+		if(!n.exits(Cell.NORTH)) n = n.getPartner();
+		Tunnel s = n.getPartner();
+		int ns = n.visible ? (n.hunter ? pose : NO_HUNTER) + 1 : 0;
+		int ss = s.visible ? (s.hunter ? pose : NO_HUNTER) + 1 : 0;
+		return tunnelTile(n.exits(Cell.EAST), ns, ss);
+	}
+
+	// Index of visible room tile
+	// Let base be ROOM, SWAMP or PIT
+	private static int roomTile(int base, boolean lair, boolean wumpus, int pose)  {
+		return ROOM_TILES + ((base * 2 + (lair ? 1 : 0)) * 2 + (wumpus ? 1 : 0)) * 3 + pose;
+	}
+
+	// Index of tunnel tile
+	// Let e be whether north half exits east
+	// Let n and s be half states: 0 hidden, else pose plus one
+	private static int tunnelTile(boolean e, int n, int s)  {
+		return TUNNEL_TILES + ((e ? 4 : 0) + n) * 4 + s;
+	}
+
+	// Composite every tile into atlas
+	// Called once pictures are fully loaded
+	private void compose()  {
+		int rows = (TILES + COLUMNS - 1) / COLUMNS;
+		atlas = tileImage(COLUMNS * WIDTH, rows * HEIGHT);
+		Graphics g = atlas.getGraphics();
+		composeTile(g, HIDDEN_TILE).drawImage(pictures[HIDDEN], 0, 0, observer);
+		for(int base = ROOM; base <= PIT; base++)
+			for(int lair = 0; lair < 2; lair++)
+				for(int wumpus = 0; wumpus < 2; wumpus++)
+					for(int pose = NO_HUNTER; pose <= AIMING; pose++)  {
+						int t = roomTile(base, lair == 1, wumpus == 1, pose);
+						composeRoom(composeTile(g, t), base, lair == 1, wumpus == 1, pose);
+					}
+		for(int e = 0; e < 2; e++)
+			for(int n = 0; n < 4; n++)
+				for(int s = 0; s < 4; s++)  {
+					Graphics h = composeTile(g, tunnelTile(e == 1, n, s));
+					h.drawImage(pictures[HIDDEN], 0, 0, observer);
+					composeHalf(h, true, e == 1, n);
+					composeHalf(h, false, e == 1, s);
+				}
+		g.dispose();
+	}
+
+	// Graphics drawing into tile t of atlas, clipped to it
+	private Graphics composeTile(Graphics g, int t)  {
+		return g.create((t % COLUMNS) * WIDTH, (t / COLUMNS) * HEIGHT, WIDTH, HEIGHT);
+	}
+
+	// Draw room layers onto tile graphics g
+	private void composeRoom(Graphics g, int base, boolean lair, boolean wumpus, int pose)  {
+		g.drawImage(pictures[base], 0, 0, observer);
+		if(lair) g.drawImage(pictures[DOT], 0, 0, observer);
+		if(wumpus) g.drawImage(pictures[WUMPUS], 0, 0, observer);
+		if(pose != NO_HUNTER)
+			g.drawImage(pictures[pose == AIMING ? SHOOTING_HUNTER : NORMAL_HUNTER], 16, 14, observer);
+	}
+
+	// Draw one tunnel half onto tile graphics g
+	// Let north be which half, e whether north half exits east
+	// Let state be 0 for hidden, else hunter pose plus one
+	private void composeHalf(Graphics g, boolean north, boolean e, int state)  {
+		if(state == 0) return;
+		int i = 0;
+		if(north)
+			i = e ? NE_TUNNEL : NW_TUNNEL;
+		else
+			i = e ? SW_TUNNEL : SE_TUNNEL;
+		g.drawImage(pictures[i], 0, 0, observer);
+		int pose = state - 1;
+		if(pose != NO_HUNTER)  {
+			boolean west = north ? !e : e;
+			i = (pose == AIMING) ? SHOOTING_HUNTER : NORMAL_HUNTER;
+			g.drawImage(pictures[i], west ? 4 : 28, north ? 4 : 23, observer);
+		}
+	}
+
+	// Blank image suited to screen, or plain one when headless
+	static BufferedImage tileImage(int w, int h)  {
+		if(GraphicsEnvironment.isHeadless())
+			return new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+		GraphicsConfiguration c = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+		return c.createCompatibleImage(w, h, Transparency.OPAQUE);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Plays recorded games of a GameLog again, headless, under current rules
+// Games whose outcome differs from recorded one are counted and listed
+public class Replayer  {
+
+	// Outcomes of games replayed, as if played by simulator
+	private Statistics statistics = new Statistics();
+	public Statistics getStatistics()  { return statistics; }
+
+	// Games ending differently than recorded
+	private long mismatches;
+	public long getMismatches()  { return mismatches; }
+
+	// Whether to print each mismatch as found
+	private boolean verbose;
+	public void setVerbose(boolean v)  { verbose = v; }
+
+	// Board reused while games keep same size
+	private Board board;
+
+	// Replay every game logged in b, from its position to its limit
+	public void replay(ByteBuffer b) throws IOException  {
+		int i = b.position();
+		while(i < b.limit())  {
+			PackedBoard p = MapFile.view(b, i);
+			i += MapFile.size(p.getWidth(), p.getHeight());
+			if(board == null || board.getWidth() != p.getWidth() || board.getHeight() != p.getHeight())
+				board = new Board(p);
+			else
+				board.load(p);
+			int n = 0;
+			int e = 0;
+			while(i < b.limit() && (e = b.get(i++) & 0xff) < GameLog.END)  {
+				if(board.getHunter() == null) continue;
+				if(e == GameLog.SHOOT) board.setShooting(!board.isShooting());
+				else if(e == GameLog.REVEAL) board.showMap();
+				else  {
+					board.arrow(e);
+					n++;
+				}
+			}
+			if(e < GameLog.END) throw new IOException("Game " + statistics.getGames() + " cut short");
+			int o = GameLog.outcome(board);
+			statistics.add(board.getHunter() == null ? board.getMessage() : null, n);
+			if(o != (e & ~GameLog.END))  {
+				mismatches++;
+				if(verbose) System.out.printf("game %d: logged outcome %d, replayed %d%n", statistics.getGames() - 1, e & ~GameLog.END, o);
+			}
+		}
+	}
+
+	// Replay every game logged in file f, memory mapped
+	public void replay(Path f) throws IOException  {
+		try(FileChannel c = FileChannel.open(f, StandardOpenOption.READ))  {
+			replay(c.map(FileChannel.MapMode.READ_ONLY, 0, c.size()));
+		}
+	}
+
+	// Replay logs and print how games ended
+	// Arguments: [-v] file...
+	public static void main(String args[]) throws IOException  {
+		Replayer r = new Replayer();
+		long start = System.nanoTime();
+		for(String a : args)
+			if(a.equals("-v")) r.setVerbose(true);
+			else r.replay(Paths.get(a));
+		double secs = (System.nanoTime() - start) / 1e9;
+		Statistics s = r.getStatistics();
+		System.out.print(s);
+		System.out.printf("%d games ended differently than logged%n", r.getMismatches());
+		System.out.printf("%.0f games/s%n", s.getGames() / secs);
+	}
+
+}
\ No newline at end of file
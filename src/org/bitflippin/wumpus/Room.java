@@ -19,8 +19,6 @@
  */
 package org.bitflippin.wumpus;
 
-import java.awt.Graphics;
-
 public class Room extends Cell  {
 
 	// Determine child class
@@ -54,9 +52,25 @@ public class Room extends Cell  {
 	private boolean wumpus = false;
 	public boolean hasWumpus()  { return wumpus; }
 
+	// Nearest room in each direction, through any tunnels
+	// Same as neighbor(d).propagate(this), filled in by linkRooms
+	private Room adjacent[] = new Room[4];
+	public Room adjacent(int d)  { return adjacent[d]; }
+
+	// Resolve nearest rooms once every cell is linked
+	// Called in map construction
+	void linkRooms()  {
+		for(int d = 0; d < 4; d++)
+			adjacent[d] = neighbor(d).propagate(this);
+	}
+
+	// Position in list of rooms kept by board
+	// Used in map construction
+	int slot;
+
 	// Generate new cell, assign parameters
 	// Carryover constructor of Cell
-	public Room(int cx, int cy)  { super(cx, cy); }
+	public Room(Board b, int cx, int cy)  { super(b, cx, cy); }
 
 	// Make this room into pit
 	// Tell surrounding rooms to be swamps
@@ -64,7 +78,7 @@ public class Room extends Cell  {
 	public void addPit()  {
 		pit = true;
 		for(int i = 0; i < 4; i++)
-			neighbor(i).propagate(this).swamp = true;
+			adjacent[i].swamp = true;
 	}
 
 	// Choose this room as home of wumpus
@@ -73,42 +87,13 @@ public class Room extends Cell  {
 	public void addWumpus()  {
 		wumpus = true;
 		for(int i = 0; i < 4; i++)  {
-			Room r1 = neighbor(i).propagate(this);
+			Room r1 = adjacent[i];
 			if(r1 != this) r1.lair = true;
 			for(int j = 0; j < 4; j++)  {
-				Room r2 = r1.neighbor(j).propagate(r1);
+				Room r2 = r1.adjacent[j];
 				if(r2 != this) r2.lair = true;
 			}
 		}
 	}
 
-	// Draw ourself onto g
-	// Let g be graphics context of applet or paint parameter
-	// Defined by contract with Cell
-	public void draw(Graphics g)  {
-		int sx = x * WIDTH;
-		int sy = y * HEIGHT;
-		if(!visible)  {
-			g.drawImage(pictures[HIDDEN], sx, sy, board);
-			return;
-		}
-		int i = 0;
-		if(pit)
-			i = PIT;
-		else if(swamp)
-			i = SWAMP;
-		else
-			i = ROOM;
-		g.drawImage(pictures[i], sx, sy, board);
-		if(lair) g.drawImage(pictures[DOT], sx, sy, board);
-		if(wumpus) g.drawImage(pictures[WUMPUS], sx, sy, board);
-		if(hunter)  {
-			if(board.isShooting())
-				i = SHOOTING_HUNTER;
-			else
-				i = NORMAL_HUNTER;
-			g.drawImage(pictures[i], sx + 16, sy + 14, board);
-		}
-	}
-
 }
\ No newline at end of file
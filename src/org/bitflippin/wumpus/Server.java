@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// Hosts independent games for clients on local socket, one board per connection
+// Each connection gets a thread of its own, virtual where the JDK has them
+//
+// Line protocol, one reply line per command:
+//   NEW [pits [tunnels [band]]]   start game on new map, tunnels one of Board presets,
+//                                 band as in Difficulty
+//   MOVE d                        move hunter, d one of N E S W
+//   SHOOT d                       shoot arrow in direction d
+//   BATCH moves                   carry out moves in one go, like NNE*S: letters move,
+//                                 star shoots toward next letter; stops when game ends
+//   LOOK                          repeat state
+//   QUIT                          reply BYE and close
+// State reply is PLAY x y exits [TUNNEL] [SWAMP] [LAIR] while hunter lives,
+// exits being letters of directions hunter may take,
+// then OVER SHOT, OVER EATEN or OVER FALLEN; bad commands get ERROR and reason
+// BATCH adds MOVES and number carried out, then SEEN and x,y of each cell uncovered
+public class Server implements Closeable  {
+
+	// Port listened on by default
+	public static final int PORT = 4077;
+
+	// Most pits a game may ask for, and tunnel settings it may pick from, as on setup screen
+	// Beyond them createMap fails often enough to stall a session
+	// Fixed tunnel settings also keep MapPool to a few pools
+	public static final int MAX_PITS = 3;
+	public static final double TUNNELS[] = { Board.TRIVIAL, Board.SIMPLE, Board.AVERAGE, Board.COMPLEX };
+
+	// Most moves one BATCH may carry
+	public static final int MAX_BATCH = 4096;
+
+	// Direction letters in order of Cell constants
+	public static final String DIRECTIONS = "NESW";
+
+	// Maps handed to new games, shared by every session
+	private MapPool pool;
+
+	// Socket taking connections, bound to loopback only
+	private ServerSocket socket;
+	public int getPort()  { return socket.getLocalPort(); }
+
+	// Runs one session per connection
+	private ExecutorService sessions = executor();
+
+	// Connections accepted, and those still open
+	private LongAdder connections = new LongAdder();
+	private LongAdder open = new LongAdder();
+	public long getConnections()  { return connections.sum(); }
+	public long getOpen()  { return open.sum(); }
+
+	// Generate server for w by h maps listening on port p of loopback
+	// Let p be 0 for any free port
+	public Server(int w, int h, int p) throws IOException  {
+		pool = new MapPool(w, h, System.nanoTime());
+		socket = new ServerSocket(p, 1024, InetAddress.getLoopbackAddress());
+	}
+
+	// Virtual thread per task if the JDK has them, else cached pool
+	// Looked up by reflection so the game still builds and runs on JDK 11
+	static ExecutorService executor()  {
+		try  {
+			return (ExecutorService)(Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+		}
+		catch(ReflectiveOperationException e)  {
+			return Executors.newCachedThreadPool(r ->  {
+				Thread t = new Thread(r, "Wumpus session");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+	}
+
+	// Index of t in TUNNELS, -1 if none; NaN never matches
+	static int preset(double t)  {
+		for(int i = 0; i < TUNNELS.length; i++)
+			if(t == TUNNELS[i]) return i;
+		return -1;
+	}
+
+	// Accept connections until closed
+	public void serve() throws IOException  {
+		try  {
+			for(;;)  {
+				Socket s = socket.accept();
+				connections.increment();
+				sessions.execute(() -> session(s));
+			}
+		}
+		catch(SocketException e)  {
+			if(!socket.isClosed()) throw e;
+		}
+	}
+
+	// Stop taking connections and end sessions
+	public void close() throws IOException  {
+		socket.close();
+		sessions.shutdownNow();
+	}
+
+	// Play games for one connection until client quits or goes away
+	private void session(Socket s)  {
+		open.increment();
+		try(Socket c = s)  {
+			c.setTcpNoDelay(true);
+			BufferedReader in = new BufferedReader(new InputStreamReader(c.getInputStream(), StandardCharsets.US_ASCII));
+			Writer out = new BufferedWriter(new OutputStreamWriter(c.getOutputStream(), StandardCharsets.US_ASCII));
+			Session g = new Session();
+			String line;
+			while((line = in.readLine()) != null)  {
+				String r = g.handle(line.trim());
+				out.write(r);
+				out.write('\n');
+				out.flush();
+				if(r.equals("BYE")) break;
+			}
+		}
+		catch(IOException e)  {
+			// Client went away; nothing to clean up beyond socket
+		}
+		finally  {
+			open.decrement();
+		}
+	}
+
+	// Game state of one connection, used only by its thread
+	private class Session  {
+
+		// Board of game in progress or last ended, null before first NEW
+		private Board board;
+
+		// Moves of BATCH and what they did, reused
+		private int moves[] = new int[MAX_BATCH];
+		private MoveResult result = new MoveResult();
+
+		// Carry out command c and return reply
+		String handle(String c)  {
+			String w[] = c.split("\\s+");
+			try  {
+				switch(w[0].toUpperCase())  {
+					case "NEW":
+						int p = w.length > 1 ? Integer.parseInt(w[1]) : 2;
+						double t = w.length > 2 ? Double.parseDouble(w[2]) : Board.SIMPLE;
+						int b = w.length > 3 ? Integer.parseInt(w[3]) : Difficulty.ANY;
+						int i = preset(t);
+						if(p < 0 || p > MAX_PITS || i < 0 || b < Difficulty.ANY || b > Difficulty.HARD) return "ERROR bad settings";
+						Board m = pool.take(p, TUNNELS[i], b);
+						if(m == null) return "ERROR no map fits";
+						board = m;
+						return state();
+					case "MOVE":
+					case "SHOOT":
+						if(board == null) return "ERROR no game";
+						if(w.length < 2 || w[1].length() != 1) return "ERROR need direction";
+						int d = DIRECTIONS.indexOf(Character.toUpperCase(w[1].charAt(0)));
+						if(d < 0) return "ERROR need direction";
+						board.apply(w[0].equalsIgnoreCase("SHOOT") ? d | HunterAgent.SHOOT : d);
+						return state();
+					case "BATCH":
+						if(board == null) return "ERROR no game";
+						if(w.length < 2) return "ERROR need moves";
+						int n = parse(w[1]);
+						if(n < 0) return "ERROR bad moves";
+						board.apply(moves, n, result);
+						return batch();
+					case "LOOK":
+						if(board == null) return "ERROR no game";
+						return state();
+					case "QUIT":
+						return "BYE";
+					default:
+						return "ERROR unknown command";
+				}
+			}
+			catch(NumberFormatException e)  {
+				return "ERROR bad number";
+			}
+		}
+
+		// Read moves like NNE*S into moves
+		// Return how many, or -1 if malformed or too many
+		private int parse(String m)  {
+			int n = 0;
+			int shoot = 0;
+			for(int i = 0; i < m.length(); i++)  {
+				char c = Character.toUpperCase(m.charAt(i));
+				if(c == '*' && shoot == 0)  {
+					shoot = HunterAgent.SHOOT;
+					continue;
+				}
+				int d = DIRECTIONS.indexOf(c);
+				if(d < 0 || n == MAX_BATCH) return -1;
+				moves[n++] = d | shoot;
+				shoot = 0;
+			}
+			return shoot == 0 ? n : -1;
+		}
+
+		// Reply to BATCH: state, moves made and cells uncovered
+		private String batch()  {
+			StringBuilder s = new StringBuilder(state());
+			s.append(" MOVES ").append(result.getMoves()).append(" SEEN");
+			for(int i = 0; i < result.getRevealedCount(); i++)  {
+				int p = result.getRevealed(i);
+				s.append(' ').append(p % board.getWidth()).append(',').append(p / board.getWidth());
+			}
+			return s.toString();
+		}
+
+		// Reply describing what hunter perceives, or how game ended
+		private String state()  {
+			Cell h = board.getHunter();
+			if(h == null)  {
+				String m = board.getMessage();
+				if(m.equals(Board.MSG_SHOT)) return "OVER SHOT";
+				if(m.equals(Board.MSG_FALLEN)) return "OVER FALLEN";
+				return "OVER EATEN";
+			}
+			StringBuilder s = new StringBuilder("PLAY ");
+			s.append(h.x).append(' ').append(h.y).append(' ');
+			for(int d = 0; d < 4; d++)
+				if(h.exits(d)) s.append(DIRECTIONS.charAt(d));
+			if(h.isTunnel()) s.append(" TUNNEL");
+			if(h.hasSwamp()) s.append(" SWAMP");
+			if(h.hasLair()) s.append(" LAIR");
+			return s.toString();
+		}
+
+	}
+
+	// Serve games until killed
+	// Arguments: [port [width height]]
+	public static void main(String args[]) throws IOException  {
+		int p = args.length > 0 ? Integer.parseInt(args[0]) : PORT;
+		int w = args.length > 2 ? Integer.parseInt(args[1]) : Board.WIDTH;
+		int h = args.length > 2 ? Integer.parseInt(args[2]) : Board.HEIGHT;
+		try(Server s = new Server(w, h, p))  {
+			System.out.println("Serving " + w + "x" + h + " games on " + s.socket.getLocalSocketAddress());
+			s.serve();
+		}
+	}
+
+}
\ No newline at end of file
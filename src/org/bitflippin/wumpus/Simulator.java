@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+public class Simulator  {
+
+	// Games one task plays without splitting further
+	private static final long GRAIN = 256;
+
+	// Default cap on moves per game
+	public static final int MOVES = 1000;
+
+	// Parameters of every map played
+	private int width;
+	private int height;
+	private int pits;
+	private double tunnels;
+
+	// Moves after which live hunter counts as timed out
+	private int limit = MOVES;
+	public void setLimit(int n)  { limit = n; }
+
+	// Makes one agent per task from random numbers of its own
+	private Function<SplittableRandom, HunterAgent> agents = RandomAgent::new;
+	public void setAgents(Function<SplittableRandom, HunterAgent> f)  { agents = f; }
+
+	// Generate simulator for w by h maps
+	// Let p and t be as in Board.createMap
+	public Simulator(int w, int h, int p, double t)  {
+		width = w;
+		height = h;
+		pits = p;
+		tunnels = t;
+	}
+
+	// Play n games in pool f, seeding everything from seed
+	// Same seed gives same statistics whatever the parallelism
+	public Statistics run(long n, long seed, ForkJoinPool f)  {
+		return f.invoke(new Batch(0, n, new SplittableRandom(seed), null));
+	}
+
+	// Play every map of corpus c once in pool f, seeding agents from seed
+	// Maps come from c, so map parameters of simulator are ignored
+	public Statistics run(MapCorpus c, long seed, ForkJoinPool f)  {
+		return f.invoke(new Batch(0, c.size(), new SplittableRandom(seed), c));
+	}
+
+	// Play n games in common pool
+	public Statistics run(long n, long seed)  {
+		return run(n, seed, ForkJoinPool.commonPool());
+	}
+
+	// Range of games with its own random numbers
+	// Splits in half until small, then plays on one board with one agent
+	// Plays maps of corpus with same numbers if there is one, else generates them
+	private class Batch extends RecursiveTask<Statistics>  {
+		private static final long serialVersionUID = 1L;
+		private long low;
+		private long high;
+		private SplittableRandom random;
+		private MapCorpus corpus;
+		Batch(long l, long h, SplittableRandom r, MapCorpus c)  {
+			low = l;
+			high = h;
+			random = r;
+			corpus = c;
+		}
+		protected Statistics compute()  {
+			if(high - low > GRAIN)  {
+				long mid = (low + high) >>> 1;
+				Batch left = new Batch(low, mid, random.split(), corpus);
+				Batch right = new Batch(mid, high, random, corpus);
+				left.fork();
+				Statistics s = right.compute();
+				s.merge(left.join());
+				return s;
+			}
+			Statistics s = new Statistics();
+			if(corpus != null)  {
+				PackedGame g = new PackedGame();
+				Observation o = new Observation(g);
+				HunterAgent a = agents.apply(random.split());
+				for(long i = low; i < high; i++)
+					play(corpus.get(i), g, a, o, s);
+				return s;
+			}
+			Board b = new Board(width, height);
+			Observation o = new Observation(b);
+			HunterAgent a = agents.apply(random.split());
+			for(long i = low; i < high; i++)
+				play(b, a, o, random, s);
+			return s;
+		}
+	}
+
+	// Generate map on b and let a play it to end, counting outcome in s
+	private void play(Board b, HunterAgent a, Observation o, SplittableRandom r, Statistics s)  {
+		if(!b.createMap(pits, tunnels, r))  {
+			s.fail();
+			return;
+		}
+		int n = b.play(a, o, limit);
+		s.add(b.getHunter() == null ? b.getMessage() : null, n);
+	}
+
+	// Let a play map m to end in game g, counting outcome in s
+	private void play(PackedBoard m, PackedGame g, HunterAgent a, Observation o, Statistics s)  {
+		g.start(m);
+		int n = g.play(a, o, limit);
+		s.add(g.getHunter() == PackedBoard.NONE ? g.getMessage() : null, n);
+	}
+
+	// Factory for agents of class named n
+	// Class needs constructor taking SplittableRandom, or none
+	static Function<SplittableRandom, HunterAgent> agents(String n) throws ReflectiveOperationException  {
+		final Class<? extends HunterAgent> c = Class.forName(n).asSubclass(HunterAgent.class);
+		try  {
+			c.getConstructor(SplittableRandom.class);
+		}
+		catch(NoSuchMethodException e)  {
+			c.getConstructor();
+			return r -> create(c);
+		}
+		return r -> create(c, r);
+	}
+
+	// Instantiate agent class c with constructor parameters p
+	private static HunterAgent create(Class<? extends HunterAgent> c, Object... p)  {
+		try  {
+			if(p.length == 0) return c.getConstructor().newInstance();
+			return c.getConstructor(SplittableRandom.class).newInstance(p);
+		}
+		catch(ReflectiveOperationException e)  {
+			throw new IllegalStateException("Cannot create agent " + c.getName(), e);
+		}
+	}
+
+	// Play games headless and print statistics
+	// Arguments: games [pits [tunnels [width height [seed [threads [agent class]]]]]]
+	public static void main(String args[]) throws ReflectiveOperationException  {
+		long n = args.length > 0 ? Long.parseLong(args[0]) : 1000000;
+		int p = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+		double t = args.length > 2 ? Double.parseDouble(args[2]) : Board.SIMPLE;
+		int w = args.length > 4 ? Integer.parseInt(args[3]) : Board.WIDTH;
+		int h = args.length > 4 ? Integer.parseInt(args[4]) : Board.HEIGHT;
+		long seed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+		int threads = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+		ForkJoinPool f = new ForkJoinPool(threads);
+		long start = System.nanoTime();
+		Simulator sim = new Simulator(w, h, p, t);
+		if(args.length > 7) sim.setAgents(agents(args[7]));
+		Statistics s = sim.run(n, seed, f);
+		double secs = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%dx%d cave, %d pits, tunnels %.2f, seed %d, %d threads%n", w, h, p, t, seed, threads);
+		System.out.print(s);
+		System.out.printf("%.0f games/s%n", s.getGames() / secs);
+		if(Metrics.ENABLED) System.out.print(Metrics.get());
+		f.shutdown();
+	}
+
+}
\ No newline at end of file
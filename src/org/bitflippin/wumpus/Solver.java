@@ -0,0 +1,689 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+public class Solver  {
+
+	// Risky rooms entered in look-ahead by default
+	// Entering rooms known to be safe is free and never counted
+	public static final int DEPTH = 2;
+
+	// Rooms entered in look-ahead, safe or not, by default
+	// Unbounded, so states keep their memo entries from move to move
+	public static final int HORIZON = Integer.MAX_VALUE;
+
+	// Win chance solve may fall short of best by default
+	public static final double TOLERANCE = 0.001;
+
+	// Milliseconds solve may take by default, 0 for no limit
+	public static final long BUDGET = 0;
+
+	// Most pit layouts a solver will enumerate
+	public static final int HYPOTHESES = 1 << 20;
+
+	// Levels of look-ahead that search their outcomes in parallel
+	private static final int FORKS = 2;
+
+	// Nanoseconds standing in for no deadline, still safe to compare by subtraction
+	private static final long FOREVER = Long.MAX_VALUE / 2;
+
+	// Board being solved
+	// Layout of cave, start and number of pits count as known, hazards do not
+	private Board board;
+
+	// Rooms of board, numbered column by column
+	private Room rooms[];
+	private int count;
+	private Map<Room, Integer> numbers = new HashMap<>();
+
+	// Words in a set of rooms
+	private int words;
+
+	// Rooms next to each room, as in Room.adjacent, and as set
+	// A pit makes exactly these rooms swamps
+	private int adjacent[][];
+	private long reach[][];
+
+	// Rooms a wumpus in each room makes lairs, see Room.addWumpus
+	// And wumpus rooms that make each room a lair
+	private long ring[][];
+	private long lairs[][];
+
+	// Pit layouts possible when game starts, pits rooms each
+	// Weight of layout is chance of any one wumpus room given it
+	private int pits;
+	private int layout[];
+	private double weight[];
+	private int layouts;
+
+	// Wumpus rooms possible when game starts
+	private long wumpus[];
+
+	// Risky rooms entered in look-ahead
+	// Past it, hunter is taken to shoot best room
+	private int depth = DEPTH;
+	public void setDepth(int d)  { depth = d; }
+
+	// Rooms entered in look-ahead, safe or not
+	// Past it, hunter is taken to enter only rooms safe by then, ignoring their swamps
+	private int horizon = HORIZON;
+	public void setHorizon(int n)  { horizon = n; }
+
+	// Win chance solve may fall short of best
+	// A state stops being searched once its lower bound is this close to sure,
+	// and such shortfalls only add up to it over the whole tree
+	// Memo doesn't record it, so set it before first solve
+	private double tolerance = TOLERANCE;
+	public void setTolerance(double t)  { tolerance = t; }
+
+	// Milliseconds solve may take, 0 for no limit
+	// With a limit, solve deepens one risky room at a time from depth 0,
+	// keeping the action of the deepest search finished in time
+	// If not even depth 0 finishes, it falls back on bounds of the current state alone:
+	// entering rooms safe already, ignoring their swamps, or shooting
+	private long budget = BUDGET;
+	public void setBudget(long ms)  { budget = ms; }
+
+	// Depth of search last solve finished, -1 if it fell back on bounds
+	private int reached;
+	public int getReached()  { return reached; }
+
+	// Best action and win mass of knowledge already searched
+	private Map<Key, Entry> memo = new ConcurrentHashMap<>();
+
+	// Action chosen by last solve
+	// Room to enter or shoot, null if nothing helps
+	private Room target;
+	private boolean shot;
+	public Room getTarget()  { return target; }
+	public boolean isShot()  { return shot; }
+
+	// Generate solver for map just created on b
+	// Enumerates every pit layout and wumpus room createMap could have chosen
+	public Solver(Board b)  {
+		board = b;
+		rooms = new Room[b.getWidth() * b.getHeight()];
+		for(int x = 0; x < b.getWidth(); x++)
+			for(int y = 0; y < b.getHeight(); y++)  {
+				Cell c = b.getCell(x, y);
+				if(c.isRoom())  {
+					numbers.put((Room)(c), count);
+					rooms[count++] = (Room)(c);
+				}
+			}
+		words = (count + 63) >>> 6;
+		adjacent = new int[count][4];
+		reach = new long[count][words];
+		ring = new long[count][words];
+		lairs = new long[count][words];
+		for(int r = 0; r < count; r++)
+			for(int d = 0; d < 4; d++)  {
+				adjacent[r][d] = numbers.get(rooms[r].adjacent(d));
+				set(reach[r], adjacent[r][d]);
+			}
+		for(int r = 0; r < count; r++)  {
+			for(int i = 0; i < 4; i++)  {
+				int r1 = adjacent[r][i];
+				set(ring[r], r1);
+				for(int j = 0; j < 4; j++)
+					set(ring[r], adjacent[r1][j]);
+			}
+			clear(ring[r], r);
+		}
+		for(int r = 0; r < count; r++)
+			for(int q = 0; q < count; q++)
+				if(has(ring[r], q)) set(lairs[q], r);
+		// Exclude rooms as placeHunter and placeWumpus do
+		int s = numbers.get(b.getStart());
+		long eligible[] = new long[words];
+		for(int r = 0; r < count; r++)
+			set(eligible, r);
+		clear(eligible, s);
+		for(int d = 0; d < 4; d++)
+			clear(eligible, adjacent[s][d]);
+		wumpus = eligible.clone();
+		for(int i = 0; i < 4; i++)
+			for(int j = 0; j < 4; j++)
+				clear(wumpus, adjacent[adjacent[s][i]][j]);
+		pits = b.getPits();
+		enumerate(eligible);
+	}
+
+	// List every set of pits rooms out of eligible
+	// Layouts leaving no room for wumpus are dropped, as createMap retries them
+	private void enumerate(long eligible[])  {
+		int m = 0;
+		int candidates[] = new int[count];
+		for(int r = 0; r < count; r++)
+			if(has(eligible, r)) candidates[m++] = r;
+		double n = 1;
+		for(int i = 0; i < pits; i++)
+			n = n * (m - i) / (i + 1);
+		if(n > HYPOTHESES) throw new IllegalArgumentException("Too many pit layouts to solve: " + (long)(n));
+		layout = new int[(int)(n) * pits];
+		weight = new double[(int)(n)];
+		int pick[] = new int[pits];
+		for(int i = 0; i < pits; i++)
+			pick[i] = i;
+		while(pits <= m)  {
+			int w = size(wumpus);
+			for(int i = 0; i < pits; i++)  {
+				layout[layouts * pits + i] = candidates[pick[i]];
+				if(has(wumpus, candidates[pick[i]])) w--;
+			}
+			if(w > 0) weight[layouts++] = 1.0 / w;
+			// Advance to next combination in lexicographic order
+			int i = pits - 1;
+			while(i >= 0 && pick[i] == m - pits + i)
+				i--;
+			if(i < 0) break;
+			pick[i]++;
+			for(int j = i + 1; j < pits; j++)
+				pick[j] = pick[j - 1] + 1;
+		}
+	}
+
+	// Find best action for hunter from rooms visible on board
+	// Return chance of winning with it; sets target and shot
+	public double solve()  {
+		target = null;
+		shot = false;
+		if(board.getHunter() == null) return 0;
+		long known[] = new long[3 * words];
+		long h[] = wumpus.clone();
+		for(int r = 0; r < count; r++)  {
+			Room q = rooms[r];
+			if(!q.visible) continue;
+			set(known, r);
+			if(q.hasSwamp()) set(known, (words << 6) + r);
+			if(q.hasLair()) set(known, (words << 7) + r);
+			clear(h, r);
+			for(int w = 0; w < words; w++)
+				h[w] &= q.hasLair() ? lairs[r][w] : ~lairs[r][w];
+		}
+		int g[] = new int[layouts];
+		int n = 0;
+		for(int i = 0; i < layouts; i++)
+			if(consistent(i, known)) g[n++] = i;
+		g = Arrays.copyOf(g, n);
+		long f[] = new long[words];
+		for(int r = 0; r < count; r++)
+			if(has(known, r)) or(f, reach[r]);
+		for(int w = 0; w < words; w++)
+			f[w] &= ~known[w];
+		long end = System.nanoTime() + (budget > 0 ? budget * 1000000 : FOREVER);
+		Entry e = null;
+		Search root = null;
+		reached = -1;
+		try  {
+			for(int d = budget > 0 ? 0 : depth; d <= depth; d++)  {
+				root = new Search(known, f, g, h, d, horizon, 0, end);
+				e = ForkJoinPool.commonPool().invoke(root);
+				reached = d;
+			}
+		}
+		catch(Expired x)  {
+			// Keep action of last search finished, else bounds first search found
+			if(e == null) e = root.bound;
+		}
+		if(e.room >= 0)  {
+			target = rooms[e.room];
+			shot = e.shot;
+		}
+		double m = mass(g, h);
+		return m == 0 ? 0 : e.win / m;
+	}
+
+	// Whether pit layout i agrees with visited rooms in k
+	// No pit in any of them, and a swamp in exactly those that showed one
+	private boolean consistent(int i, long k[])  {
+		long s[] = new long[words];
+		for(int j = 0; j < pits; j++)  {
+			int q = layout[i * pits + j];
+			if(has(k, q)) return false;
+			or(s, reach[q]);
+		}
+		for(int w = 0; w < words; w++)
+			if((s[w] & k[w]) != k[words + w]) return false;
+		return true;
+	}
+
+	// Whether pit layout i makes room r a swamp
+	private boolean swamp(int i, int r)  {
+		for(int j = 0; j < pits; j++)
+			if(has(reach[layout[i * pits + j]], r)) return true;
+		return false;
+	}
+
+	// Total weight of pit layouts g paired with wumpus rooms h
+	// Proportional to chance of what hunter knows so far
+	private double mass(int g[], long h[])  {
+		int c = size(h);
+		double m = 0;
+		for(int i : g)
+			m += weight[i] * (c - common(i, h));
+		return m;
+	}
+
+	// Number of wumpus rooms in h that pit layout i takes
+	private int common(int i, long h[])  {
+		int c = 0;
+		for(int j = 0; j < pits; j++)
+			if(has(h, layout[i * pits + j])) c++;
+		return c;
+	}
+
+	// Best action and its win mass, the chance of winning times mass
+	// Room is -1 if no action wins
+	private static class Entry  {
+		final double win;
+		final int room;
+		final boolean shot;
+		Entry(double w, int r, boolean s)  {
+			win = w;
+			room = r;
+			shot = s;
+		}
+	}
+
+	// Thrown through search once its deadline passes
+	// Finished parts stay in memo, as they don't depend on deadline
+	private static class Expired extends RuntimeException  {
+		private static final long serialVersionUID = 1L;
+		Expired()  { super(null, null, false, false); }
+	}
+
+	// What hunter knows, and look-ahead left
+	// Same knowledge always leaves same hypotheses, so it keys memo
+	private static class Key  {
+		final long known[];
+		final int depth;
+		final int steps;
+		Key(long k[], int d, int n)  {
+			known = k;
+			depth = d;
+			steps = n;
+		}
+		public int hashCode()  { return (Arrays.hashCode(known) * 31 + depth) * 31 + steps; }
+		public boolean equals(Object o)  {
+			if(!(o instanceof Key)) return false;
+			Key k = (Key)(o);
+			return depth == k.depth && steps == k.steps && Arrays.equals(known, k.known);
+		}
+	}
+
+	// Expectimax over one knowledge state
+	// Let known hold visited rooms, then those showing swamp, then lair,
+	// a word-aligned set each
+	// Let f be rooms next to visited ones but not visited
+	// Let g and h be pit layouts and wumpus rooms still possible
+	// Let end be System.nanoTime past which search throws Expired
+	// Root never does, so it always gets as far as its bound
+	private class Search extends RecursiveTask<Entry>  {
+		private static final long serialVersionUID = 1L;
+		private long known[];
+		private long f[];
+		private int g[];
+		private long h[];
+		private int depth;
+		private int steps;
+		private int level;
+		private long end;
+		// Best action known from bounds alone, before searching outcomes
+		private Entry bound;
+		// Whether search went past bounds to outcomes of entering rooms
+		// Bounds alone are cheaper to redo than to remember
+		private boolean deep;
+		Search(long k[], long pf[], int pg[], long ph[], int d, int n, int l, long e)  {
+			known = k;
+			f = pf;
+			g = pg;
+			h = ph;
+			depth = d;
+			steps = n;
+			level = l;
+			end = e;
+		}
+		protected Entry compute()  {
+			if(level > 0 && System.nanoTime() - end > 0) throw new Expired();
+			Key key = new Key(known, depth, steps);
+			Entry e = memo.get(key);
+			if(e != null) return e;
+			e = search();
+			if(deep) memo.put(key, e);
+			return e;
+		}
+		// Shooting wins with mass of hypotheses with wumpus in target
+		// Entering wins with summed win mass of every survivable outcome
+		private Entry search()  {
+			int c = size(h);
+			double all = 0;
+			double mass = 0;
+			double pit[] = new double[count];
+			double pair[] = new double[count];
+			for(int i : g)  {
+				double x = weight[i] * (c - common(i, h));
+				all += weight[i];
+				mass += x;
+				for(int j = 0; j < pits; j++)  {
+					int q = layout[i * pits + j];
+					pit[q] += weight[i];
+					pair[q] += x;
+				}
+			}
+			// Nothing beats a shot that can't miss
+			Entry best = new Entry(0, -1, false);
+			for(int r = next(h, 0); r >= 0; r = next(h, r + 1))
+				if(has(f, r) && all - pit[r] > best.win) best = new Entry(all - pit[r], r, true);
+			if(best.win >= mass) return best;
+			// Entering safe rooms only adds knowledge, so it is never worse
+			// Enter the one whose lair best splits wumpus rooms, to reach a sure shot soon
+			// If none tells anything of wumpus, enter them all for their swamps
+			long open[] = new long[words];
+			long safe[] = new long[words];
+			int first = -1;
+			int split = 0;
+			for(int r = 0; r < count; r++)
+				if(pit[r] == 0) set(open, r);
+			for(int r = next(f, 0); r >= 0; r = next(f, r + 1))
+				if(pit[r] == 0 && !has(h, r))  {
+					set(safe, r);
+					int in = common(h, lairs[r]);
+					if(first < 0 || Math.min(in, c - in) > split)  {
+						first = r;
+						split = Math.min(in, c - in);
+					}
+				}
+			// Ignoring swamps keeps pit layouts whole, so entering safe rooms alone needs no search
+			// Its win is a lower bound, and usually already close enough to sure
+			double b = blind(Arrays.copyOf(known, words), f.clone(), h.clone(), open, pit, all);
+			bound = (b > best.win || best.room < 0) && first >= 0 ? new Entry(b, first, false) : best;
+			if(steps == 0 || b >= mass * (1 - tolerance)) return bound;
+			if(split > 0)  {
+				long s[] = new long[words];
+				set(s, first);
+				return new Entry(explore(s, depth), first, false);
+			}
+			if(first >= 0) return new Entry(explore(safe, depth), first, false);
+			if(depth <= 0) return best;
+			// Try risky rooms most likely survived first
+			// Survival mass bounds win mass, so stop once it can't beat best
+			int order[] = new int[count];
+			double survive[] = new double[count];
+			int n = 0;
+			for(int r = 0; r < count; r++)
+				if(has(f, r))  {
+					survive[r] = mass - pair[r] - (has(h, r) ? all - pit[r] : 0);
+					order[n++] = r;
+				}
+			sort(order, n, survive);
+			for(int i = 0; i < n; i++)  {
+				int r = order[i];
+				if(survive[r] <= best.win) break;
+				long s[] = new long[words];
+				set(s, r);
+				double u = explore(s, depth - 1);
+				if(u > best.win) best = new Entry(u, r, false);
+			}
+			return best;
+		}
+		// Win mass of entering rooms safe already, ignoring their swamps, then shooting best room
+		// Let in be rooms entered, f rooms next to them and k wumpus rooms still possible
+		// Pit layouts stay whole, so rooms open stay free of pits, and pit chances stay pit out of all
+		// Each lair seen splits k, and either part may find more rooms safe
+		private double blind(long in[], long f[], long k[], long open[], double pit[], double all)  {
+			for(int w = 0; w < words; )  {
+				long x = f[w] & open[w] & ~in[w] & ~k[w];
+				if(x == 0)  {
+					w++;
+					continue;
+				}
+				int r = (w << 6) + Long.numberOfTrailingZeros(x);
+				set(in, r);
+				or(f, reach[r]);
+				w = 0;
+				int a = common(k, lairs[r]);
+				if(a == 0 || a == size(k)) continue;
+				long m[] = k.clone();
+				for(int v = 0; v < words; v++)  {
+					m[v] &= lairs[r][v];
+					k[v] &= ~lairs[r][v];
+				}
+				return blind(in.clone(), f.clone(), m, open, pit, all) + blind(in, f, k, open, pit, all);
+			}
+			double u = 0;
+			for(int r = next(k, 0); r >= 0; r = next(k, r + 1))
+				if(has(f, r) && !has(in, r)) u = Math.max(u, all - pit[r]);
+			return u;
+		}
+		// Win mass of entering every room in s and surviving
+		// Splits pit layouts by swamps and wumpus rooms by lairs seen there, room by room
+		private double explore(long s[], int d)  {
+			deep = true;
+			int alive[] = new int[g.length];
+			int n = 0;
+			for(int i : g)  {
+				boolean dead = false;
+				for(int j = 0; j < pits; j++)
+					dead |= has(s, layout[i * pits + j]);
+				if(!dead) alive[n++] = i;
+			}
+			List<int[]> pg = new ArrayList<>();
+			List<long[]> ps = new ArrayList<>();
+			pg.add(Arrays.copyOf(alive, n));
+			ps.add(new long[words]);
+			List<long[]> wg = new ArrayList<>();
+			List<long[]> ws = new ArrayList<>();
+			long left[] = h.clone();
+			for(int w = 0; w < words; w++)
+				left[w] &= ~s[w];
+			wg.add(left);
+			ws.add(new long[words]);
+			for(int r = 0; r < count; r++)  {
+				if(!has(s, r)) continue;
+				for(int k = pg.size() - 1; k >= 0; k--)  {
+					int l[] = pg.get(k);
+					int in[] = new int[l.length];
+					int out[] = new int[l.length];
+					int a = 0;
+					int b = 0;
+					for(int i : l)
+						if(swamp(i, r)) in[a++] = i;
+						else out[b++] = i;
+					if(a == 0) continue;
+					long m[] = ps.get(k).clone();
+					set(m, r);
+					if(b == 0)  {
+						ps.set(k, m);
+						continue;
+					}
+					pg.set(k, Arrays.copyOf(out, b));
+					pg.add(Arrays.copyOf(in, a));
+					ps.add(m);
+				}
+				for(int k = wg.size() - 1; k >= 0; k--)  {
+					long l[] = wg.get(k);
+					int a = common(l, lairs[r]);
+					if(a == 0) continue;
+					long m[] = ws.get(k).clone();
+					set(m, r);
+					if(a == size(l))  {
+						ws.set(k, m);
+						continue;
+					}
+					long in[] = l.clone();
+					for(int w = 0; w < words; w++)  {
+						in[w] &= lairs[r][w];
+						l[w] &= ~lairs[r][w];
+					}
+					wg.add(in);
+					ws.add(m);
+				}
+			}
+			long edge[] = f.clone();
+			for(int r = next(s, 0); r >= 0; r = next(s, r + 1))
+				or(edge, reach[r]);
+			for(int w = 0; w < words; w++)
+				edge[w] &= ~(known[w] | s[w]);
+			List<Search> t = new ArrayList<>();
+			for(int i = 0; i < pg.size(); i++)  {
+				if(pg.get(i).length == 0) continue;
+				for(int j = 0; j < wg.size(); j++)  {
+					if(size(wg.get(j)) == 0) continue;
+					long next[] = known.clone();
+					for(int w = 0; w < words; w++)  {
+						next[w] |= s[w];
+						next[words + w] |= ps.get(i)[w];
+						next[2 * words + w] |= ws.get(j)[w];
+					}
+					t.add(new Search(next, edge, pg.get(i), wg.get(j), d, steps == HORIZON ? steps : steps - 1, level + 1, end));
+				}
+			}
+			double u = 0;
+			if(level < FORKS && t.size() > 1)  {
+				for(Search e : ForkJoinTask.invokeAll(t))
+					u += e.join().win;
+			}
+			else
+				for(Search e : t)
+					u += e.compute().win;
+			return u;
+		}
+	}
+
+	// Sort first n rooms of o by v, largest first
+	private static void sort(int o[], int n, double v[])  {
+		for(int i = 1; i < n; i++)  {
+			int r = o[i];
+			int j = i;
+			for(; j > 0 && v[o[j - 1]] < v[r]; j--)
+				o[j] = o[j - 1];
+			o[j] = r;
+		}
+	}
+
+	// Operations on sets of rooms, one bit per room
+	private static boolean has(long s[], int r)  { return (s[r >>> 6] & (1L << r)) != 0; }
+	private static int next(long s[], int r)  {
+		int i = r >>> 6;
+		if(i >= s.length) return -1;
+		long x = s[i] & (-1L << r);
+		while(x == 0)  {
+			if(++i == s.length) return -1;
+			x = s[i];
+		}
+		return (i << 6) + Long.numberOfTrailingZeros(x);
+	}
+	private static void set(long s[], int r)  { s[r >>> 6] |= 1L << r; }
+	private static void clear(long s[], int r)  { s[r >>> 6] &= ~(1L << r); }
+	private static void or(long s[], long t[])  {
+		for(int i = 0; i < t.length; i++)
+			s[i] |= t[i];
+	}
+	private static int common(long s[], long t[])  {
+		int n = 0;
+		for(int i = 0; i < s.length; i++)
+			n += Long.bitCount(s[i] & t[i]);
+		return n;
+	}
+	private static int size(long s[])  {
+		int n = 0;
+		for(long w : s)
+			n += Long.bitCount(w);
+		return n;
+	}
+
+	// First move of hunter towards target, as HunterAgent move
+	// Walks only tunnels and visited rooms; north if no target
+	public int move()  {
+		Cell h = board.getHunter();
+		if(target == null || h == null) return Cell.NORTH;
+		Map<Cell, Integer> first = new HashMap<>();
+		ArrayDeque<Cell> queue = new ArrayDeque<>();
+		first.put(h, -1);
+		queue.add(h);
+		while(!queue.isEmpty())  {
+			Cell c = queue.poll();
+			int f = first.get(c);
+			for(int d = 0; d < 4; d++)  {
+				Cell n = c.neighbor(d);
+				if(n == null) continue;
+				if(n == target)  {
+					if(!shot) return f < 0 ? d : f;
+					if(f < 0) return HunterAgent.SHOOT | d;
+					return f;
+				}
+				if(first.containsKey(n) || !(n.isTunnel() || n.visible)) continue;
+				first.put(n, f < 0 ? d : f);
+				queue.add(n);
+			}
+		}
+		return Cell.NORTH;
+	}
+
+	// Solve start of many maps and print mean win chance and time
+	// Arguments: maps [pits [tunnels [width height [depth [seed [budget]]]]]]
+	public static void main(String args[])  {
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		int p = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+		double t = args.length > 2 ? Double.parseDouble(args[2]) : Board.SIMPLE;
+		int w = args.length > 4 ? Integer.parseInt(args[3]) : Board.WIDTH;
+		int h = args.length > 4 ? Integer.parseInt(args[4]) : Board.HEIGHT;
+		int d = args.length > 5 ? Integer.parseInt(args[5]) : DEPTH;
+		long seed = args.length > 6 ? Long.parseLong(args[6]) : System.nanoTime();
+		long budget = args.length > 7 ? Long.parseLong(args[7]) : BUDGET;
+		SplittableRandom r = new SplittableRandom(seed);
+		Board b = new Board(w, h);
+		double sum = 0;
+		long most = 0;
+		long total = 0;
+		int solved = 0;
+		int cut = 0;
+		for(int i = 0; i < n; i++)  {
+			if(!b.createMap(p, t, r)) continue;
+			long start = System.nanoTime();
+			Solver s = new Solver(b);
+			s.setDepth(d);
+			s.setBudget(budget);
+			sum += s.solve();
+			if(s.getReached() < d) cut++;
+			long time = System.nanoTime() - start;
+			total += time;
+			most = Math.max(most, time);
+			solved++;
+		}
+		System.out.printf("%dx%d cave, %d pits, tunnels %.2f, depth %d, budget %d ms, seed %d%n", w, h, p, t, d, budget, seed);
+		System.out.printf("%d maps, mean win chance %.4f, %d cut short of depth%n", solved, sum / solved, cut);
+		System.out.printf("%.2f ms mean, %.2f ms most per map%n", total / 1e6 / solved, most / 1e6);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+public class Statistics  {
+
+	// Games counted, by outcome
+	// Timeout means hunter still alive when move limit ran out
+	private long games;
+	private long shot;
+	private long eaten;
+	private long fallen;
+	private long timeout;
+	private long failed;
+	public long getGames()  { return games; }
+	public long getShot()  { return shot; }
+	public long getEaten()  { return eaten; }
+	public long getFallen()  { return fallen; }
+	public long getTimeout()  { return timeout; }
+
+	// Maps that createMap couldn't generate
+	// Not counted as games
+	public long getFailed()  { return failed; }
+
+	// Moves made, summed over games, plain and squared
+	private long moves;
+	private double squares;
+
+	// Count one game that ended with message m after n moves
+	// Let m be null if move limit ran out
+	public void add(String m, int n)  {
+		games++;
+		if(m == null) timeout++;
+		else if(m.equals(Board.MSG_SHOT)) shot++;
+		else if(m.equals(Board.MSG_EATEN)) eaten++;
+		else if(m.equals(Board.MSG_FALLEN)) fallen++;
+		else timeout++;
+		moves += n;
+		squares += (double)(n) * n;
+	}
+
+	// Count map that couldn't be generated
+	public void fail()  { failed++; }
+
+	// Add counts of s to ours
+	public void merge(Statistics s)  {
+		games += s.games;
+		shot += s.shot;
+		eaten += s.eaten;
+		fallen += s.fallen;
+		timeout += s.timeout;
+		failed += s.failed;
+		moves += s.moves;
+		squares += s.squares;
+	}
+
+	// Mean moves per game
+	public double meanMoves()  { return games == 0 ? 0 : (double)(moves) / games; }
+
+	// Half-width of 95% confidence interval of meanMoves
+	public double movesError()  {
+		if(games < 2) return 0;
+		double m = meanMoves();
+		double v = (squares - games * m * m) / (games - 1);
+		return 1.96 * Math.sqrt(Math.max(v, 0) / games);
+	}
+
+	// Fraction of games with k outcomes
+	public double rate(long k)  { return games == 0 ? 0 : (double)(k) / games; }
+
+	// Wilson 95% confidence interval of rate(k), as { low, high }
+	public double[] interval(long k)  {
+		if(games == 0) return new double[] { 0, 1 };
+		double z = 1.96;
+		double n = games;
+		double p = k / n;
+		double d = 1 + z * z / n;
+		double c = (p + z * z / (2 * n)) / d;
+		double h = z * Math.sqrt(p * (1 - p) / n + z * z / (4 * n * n)) / d;
+		return new double[] { Math.max(0, c - h), Math.min(1, c + h) };
+	}
+
+	// Several lines of report
+	public String toString()  {
+		StringBuilder s = new StringBuilder();
+		s.append(String.format("games    %d%n", games));
+		line(s, "shot", shot);
+		line(s, "eaten", eaten);
+		line(s, "fallen", fallen);
+		line(s, "timeout", timeout);
+		s.append(String.format("moves    %.3f +/- %.3f%n", meanMoves(), movesError()));
+		if(failed > 0) s.append(String.format("failed   %d maps%n", failed));
+		return s.toString();
+	}
+
+	// Append rate and interval of k outcomes called n
+	private void line(StringBuilder s, String n, long k)  {
+		double i[] = interval(k);
+		s.append(String.format("%-8s %7.3f%%  [%.3f%%, %.3f%%]%n", n, 100 * rate(k), 100 * i[0], 100 * i[1]));
+	}
+
+}
\ No newline at end of file
@@ -19,8 +19,6 @@
  */
 package org.bitflippin.wumpus;
 
-import java.awt.Graphics;
-
 public class Tunnel extends Cell  {
 
 	// Determine child class
@@ -54,68 +52,26 @@ public class Tunnel extends Cell  {
 	public boolean hasLair()  { return false; }
 
 	// Generate north-exiting tunnel
+	// Let e be whether it also exits east, otherwise west
 	// Automatically generates its south-exiting partner tunnel
-	public Tunnel(int cx, int cy)  {
-		super(cx, cy);
+	public Tunnel(Board b, int cx, int cy, boolean e)  {
+		super(b, cx, cy);
 		exits[NORTH] = true;
 		exits[SOUTH] = false;
-		double choice = Math.random();
-		exits[EAST] = (choice > 0.5);
+		exits[EAST] = e;
 		exits[WEST] = !exits[EAST];
-		partner = new Tunnel(cx, cy, this, choice);
+		partner = new Tunnel(b, cx, cy, this);
 	}
 
 	// Generate south-exiting tunnel
 	// Used only when north-exiting tunnel is created
-	private Tunnel(int cx, int cy, Tunnel p, double choice)  {
-		super(cx, cy);
+	private Tunnel(Board b, int cx, int cy, Tunnel p)  {
+		super(b, cx, cy);
 		partner = p;
 		exits[NORTH] = false;
 		exits[SOUTH] = true;
-		exits[EAST] = (choice < 0.5);
+		exits[EAST] = !p.exits[EAST];
 		exits[WEST] = !exits[EAST];
 	}
 
-	// Draw ourself onto g
-	// Let g be graphics context of applet or paint parameter
-	// Defined by contract with Cell
-	public void draw(Graphics g)  {
-		g.drawImage(pictures[HIDDEN], x * 50, y * 50, board);
-		subdraw(g);
-		partner.subdraw(g);
-	}
-
-	// Draw only this tunnel onto g
-	// Let real draw handle clearing part and partner
-	private void subdraw(Graphics g)  {
-		int sx = x * 50;
-		int sy = y * 50;
-		if(!visible) return;
-		int i = 0;
-		if(exits[NORTH] && exits[EAST])
-			i = NE_TUNNEL;
-		else if(exits[SOUTH] && exits[EAST])
-			i = SE_TUNNEL;
-		else if(exits[NORTH] && exits[WEST])
-			i = NW_TUNNEL;
-		else
-			i = SW_TUNNEL;
-		g.drawImage(pictures[i], sx, sy, board);
-		if(hunter)  {
-			if(board.isShooting())
-				i = SHOOTING_HUNTER;
-			else
-				i = NORMAL_HUNTER;
-			if(exits(NORTH))
-				sy += 4;
-			else
-				sy += 23;
-			if(exits(WEST))
-				sx += 4;
-			else
-				sx += 28;
-			g.drawImage(pictures[i], sx, sy, board);
-		}
-	}
-
 }
\ No newline at end of file
@@ -20,6 +20,7 @@
 package org.bitflippin.wumpus;
 
 import java.awt.BorderLayout;
+import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.Graphics;
@@ -29,154 +30,112 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.util.LinkedList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.ButtonGroup;
 import javax.swing.ImageIcon;
-import javax.swing.JApplet;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
+import javax.swing.SwingWorker;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.EtchedBorder;
 
-public class Wumpus extends JApplet implements ActionListener, KeyListener  {
-
-	// Dimensions of map in Cells
-	public static final int WIDTH = 10;
-	public static final int HEIGHT = 7;
-
-	// Messages displayed in the title label
-	// Welcome message or outcome of previous game
-	public static final String MSG_DEFAULT = "Setup Screen";
-	public static final String MSG_EATEN = "You got eaten by the Wumpus!";
-	public static final String MSG_SHOT = "Yay! You shot the Wumpus!";
-	public static final String MSG_FALLEN = "You fell into a slime pit!";
+public class Wumpus extends JPanel implements ActionListener, KeyListener  {
 
 	// Show outcome of last game in title
 	public void message(String s)  { ctl_title.setText(s); }
 
-	// Group of cells that form map
-	// Cells use get method to access neighbors
-	private Cell cells[][] = new Cell[WIDTH][HEIGHT];
-	public Cell getCell(int x, int y)  { return cells[x][y]; }
+	// Shown on setup while map is generated, and if none can be
+	public static final String MSG_GENERATING = "Generating cave...";
+	public static final String MSG_NO_MAP = "No cave fits settings";
 
-	// Cell chosen for wumpus
-	// Used to show where wumpus is if missed
-	private Room wumpus;
+	// Game engine holding map and rules
+	// Panel only shows it and forwards keys
+	private Board board;
 
-	// Cell currently occupied by hunter
-	// Null implies dead or setting up
-	private Cell hunter;
-	public void setHunter(Cell c)  { hunter = c; }
+	// Ready maps for every setting, so start button needn't wait
+	private MapPool pool;
+	public MapPool getPool()  { return pool; }
 
-	// Redraw visible part of board if playing game
-	// Otherwise repaint controls
-	public void paint(Graphics g)  {
-		if(ctl_setup.isVisible())
-			ctl_setup.paint(g);
-		else  {
-			for(int x = 0; x < WIDTH; x++)
-				for(int y = 0; y < HEIGHT; y++)
-					cells[x][y].draw(graphics);
-			g.drawImage(buffer, 0, 0, this);
-		}
-	}
+	// Records every game started, if set
+	private GameLog log;
+	public void setLog(GameLog l)  { log = l; }
+
+	// Draws board into second graphics buffer
+	private Renderer renderer;
+
+	// Sprite decoding started by init, runs while setup is shown
+	// Must complete before the first board is drawn; fails if sheet is missing or corrupt
+	private CompletableFuture<Void> sprites;
 
-	// Attempt to generate map with given parms
-	// Return true on success, false on failure
-	// Let t be probability of creating tunnel set
-	public boolean createMap(int p, double t)  {
-		for(int x = 0; x < WIDTH; x++)
-			for(int y = 0; y < HEIGHT; y++)
-				if(Math.random() > t)
-					cells[x][y] = new Room(x, y);
-				else
-					cells[x][y] = new Tunnel(x, y);
-		for(int i = 0; i < p; i++)
-			if(!placePit()) return false;
-		if(!placeWumpus()) return false;
-		if(!placeHunter()) return false;
-		return true;
+	// System.nanoTime when launch began, and whether startup has been reported
+	private long started;
+	private boolean reported;
+
+	// Print milliseconds since launch began, if Metrics.ENABLED
+	private void report(String s)  {
+		if(!Metrics.ENABLED) return;
+		System.out.println(s + " after " + (System.nanoTime() - started) / 1000000 + " ms");
 	}
 
-	// Choose suitable random room and place pit there
-	// True on success, false on failure
-	public boolean placePit()  {
-		LinkedList l = new LinkedList();
-		for(int x = 0; x < WIDTH; x++)
-			for(int y = 0; y < HEIGHT; y++)  {
-				Cell c = cells[x][y];
-				if(c.isRoom())  {
-					Room r = (Room)(c);
-					if(!r.hasPit()) l.add(r);
-				}
-			}
-		int s = l.size();
-		if(s > 0)  {
-			int i = (int)(Math.random() * s);
-			Room f = (Room)(l.get(i));
-			f.addPit();
-			return true;
+	// Copy board from second buffer if playing game
+	// Only changed cells are redrawn into buffer, see refresh
+	// Otherwise setup panel paints itself as a child
+	protected void paintComponent(Graphics g)  {
+		long start = Metrics.ENABLED ? System.nanoTime() : 0;
+		super.paintComponent(g);
+		if(!ctl_setup.isVisible())  {
+			renderer.update(graphics, null);
+			g.drawImage(buffer, 0, 0, this);
+		}
+		if(Metrics.ENABLED)  {
+			long now = System.nanoTime();
+			Metrics.painted(now - start);
+			if(pressed != 0) Metrics.keyed(pressedKey, now - pressed);
+			pressed = 0;
 		}
-		return false;
 	}
 
-	// Place wumpus in random room
-	// True on success, false on failure
-	public boolean placeWumpus()  {
-		LinkedList l = new LinkedList();
-		for(int x = 0; x < WIDTH; x++)
-			for(int y = 0; y < HEIGHT; y++)  {
-				Cell c = cells[x][y];
-				if(c.isRoom())  {
-					Room r = (Room)(c);
-					l.add(r);
-				}
-			}
-		int s = l.size();
-		if(s > 0)  {
-			int i = (int)(Math.random() * s);
-			wumpus = (Room)(l.get(i));
-			wumpus.addWumpus();
-			return true;
+	// When key last pressed in play, and which, until its effect is painted
+	// Only kept if Metrics.ENABLED
+	private long pressed;
+	private int pressedKey;
+
+	// Report startup once the setup panel is first painted, if Metrics.ENABLED
+	// Opaque setup hides this panel, so paintComponent is skipped
+	public void paint(Graphics g)  {
+		super.paint(g);
+		if(Metrics.ENABLED && !reported && ctl_setup.isVisible())  {
+			reported = true;
+			long now = System.currentTimeMillis();
+			report("Setup shown");
+			// Management classes load only now, off the startup path
+			long jvm = now - ManagementFactory.getRuntimeMXBean().getStartTime();
+			System.out.println("Setup shown " + jvm + " ms after JVM start");
 		}
-		return false;
 	}
 
-	// Place hunter in random room
-	// True on success, false on failure
-	public boolean placeHunter()  {
-		LinkedList l = new LinkedList();
-		for(int x = 0; x < WIDTH; x++)
-			for(int y = 0; y < HEIGHT; y++)  {
-				Cell c = cells[x][y];
-				if(c.isRoom())  {
-					Room r = (Room)(c);
-					if(!r.hasPit() && !r.hasWumpus() && !r.hasSwamp() && !r.hasLair()) l.add(r);
-				}
-			}
-		int s = l.size();
-		if(s > 0)  {
-			int i = (int)(Math.random() * s);
-			Room f = (Room)(l.get(i));
-			f.setHunter(true);
-			return true;
-		}
-		return false;
+	// Draw changed cells into second buffer
+	// Repaint only their part of panel
+	private void refresh()  {
+		if(ctl_setup.isVisible())
+			repaint();
+		else
+			renderer.update(graphics, this);
 	}
 
 	// If hunter is playing blindfolded
 	private JCheckBox ctl_blindfolded = new JCheckBox("Blindfolded", false);
-	public boolean isBlindfolded()  { return ctl_blindfolded.isSelected(); }
-
-	// If hunter is about to shoot (pressed s)
-	private boolean shooting;
-	public boolean isShooting()  { return shooting; }
 
 	// Controls for number of pits
 	private JRadioButton ctl_zero = new JRadioButton("Zero pits", false);
@@ -190,6 +149,10 @@ public class Wumpus extends JApplet implements ActionListener, KeyListener  {
 	private JRadioButton ctl_average = new JRadioButton("Average cave", false);
 	private JRadioButton ctl_complex = new JRadioButton("Complex cave", false);
 
+	// Control for difficulty band of map
+	// Entries follow Difficulty bands, starting from ANY
+	private JComboBox<String> ctl_band = new JComboBox<>(new String[] { "Any map", "Easy map", "Medium map", "Hard map" });
+
 	// Button that starts game
 	private JButton ctl_start;
 
@@ -207,7 +170,7 @@ public class Wumpus extends JApplet implements ActionListener, KeyListener  {
 	// Create the title bar; called only from init
 	private JPanel gui_title()  {
 		JPanel p = new JPanel();
-		message(MSG_DEFAULT);
+		message(Board.MSG_DEFAULT);
 		ctl_title.setFont(new Font("Monospaced", Font.BOLD, 24));
 		p.add(ctl_title);
 		return p;
@@ -264,19 +227,18 @@ public class Wumpus extends JApplet implements ActionListener, KeyListener  {
 		return p;
 	}
 
-	// Create panel with start picture and blindfold control
+	// Create panel with start picture, difficulty and blindfold controls
 	// Called only from gui_main
 	private JPanel gui_pic()  {
-		Image i = null;
-		try  { i = getImage(new URL(getDocumentBase(), "big_wumpus.gif")); }
-		catch(MalformedURLException e)  {  }
-		ctl_start = new JButton("", new ImageIcon(i));
+		ctl_start = new JButton("", new ImageIcon(Wumpus.class.getResource("/big_wumpus.gif")));
 		ctl_start.addActionListener(this);
 		ctl_start.setBorder(new EmptyBorder(0, 0, 0, 0));
 		Font f = new Font("Monospaced", Font.PLAIN, 12);
 		ctl_blindfolded.setFont(f);
-		JPanel p = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
-		p.add(ctl_blindfolded);
+		ctl_band.setFont(f);
+		JPanel p = new JPanel(new BorderLayout());
+		p.add(ctl_band, BorderLayout.WEST);
+		p.add(ctl_blindfolded, BorderLayout.EAST);
 		JPanel q = new JPanel(new BorderLayout());
 		q.add(ctl_start, BorderLayout.CENTER);
 		q.add(p, BorderLayout.SOUTH);
@@ -295,38 +257,111 @@ public class Wumpus extends JApplet implements ActionListener, KeyListener  {
 		return q;
 	}
 
-	public void init()  {
-		setSize(WIDTH * Cell.WIDTH, HEIGHT * Cell.HEIGHT);
-		buffer = createImage(WIDTH * Cell.WIDTH, HEIGHT * Cell.HEIGHT);
+	// Build panel for a cave of w by h cells
+	// Let t be System.nanoTime when launch began, for startup reports
+	public Wumpus(int w, int h, long t)  {
+		super(new BorderLayout());
+		started = t;
+		board = new Board(w, h);
+		pool = new MapPool(w, h, new SplittableRandom().nextLong());
+		// Settings the setup controls start with
+		pool.prepare(2, Board.SIMPLE, Difficulty.ANY);
+		renderer = new Renderer(board, this);
+		sprites = CompletableFuture.runAsync(() ->  {
+			try  { renderer.loadResources(); }
+			catch(IOException e)  { throw new UncheckedIOException(e); }
+			report("Sprites ready");
+		});
+		int pw = w * Renderer.WIDTH;
+		int ph = h * Renderer.HEIGHT;
+		setPreferredSize(new Dimension(pw, ph));
+		buffer = Renderer.tileImage(pw, ph);
 		graphics = buffer.getGraphics();
-		Cell.init(this);
+		setFocusable(true);
 		addKeyListener(this);
 		ctl_setup = gui_main();
-		getContentPane().add(ctl_setup);
-		ctl_start.requestFocus();
+		add(ctl_setup, BorderLayout.CENTER);
 	}
 
+	// Give keyboard focus to the start button
+	// Call once panel is showing
+	public void focus()  { ctl_start.requestFocusInWindow(); }
+
 	// Trap start action only; start gameplay
+	// Map comes from pool if one is ready, else is generated off the event thread
+	// while setup says so; stay on setup with a message if sprites failed,
+	// as no board can be drawn, or if no map fits settings
 	public void actionPerformed(ActionEvent e)  {
+		try  { sprites.join(); }
+		catch(CompletionException x)  {
+			System.err.println("Sprites not loaded: " + x.getCause().getMessage());
+			message("Pictures failed to load");
+			return;
+		}
+		int p = selectedPits();
+		double t = selectedTunnels();
+		int b = Difficulty.ANY + ctl_band.getSelectedIndex();
+		Board ready = pool.poll(p, t, b);
+		if(ready != null)  {
+			play(ready);
+			return;
+		}
+		message(MSG_GENERATING);
+		ctl_start.setEnabled(false);
+		new SwingWorker<Board, Void>()  {
+			// Map in band if one fits, else any map for settings
+			protected Board doInBackground()  {
+				Board m = pool.take(p, t, b);
+				return m != null ? m : pool.take(p, t, Difficulty.ANY);
+			}
+			protected void done()  {
+				ctl_start.setEnabled(true);
+				Board m = null;
+				try  { m = get(); }
+				catch(InterruptedException | ExecutionException x)  { System.err.println("Map not generated: " + x.getMessage()); }
+				if(m == null) message(MSG_NO_MAP);
+				else play(m);
+			}
+		}.execute();
+	}
+
+	// Pits chosen on setup
+	private int selectedPits()  {
+		if(ctl_one.isSelected()) return 1;
+		if(ctl_two.isSelected()) return 2;
+		if(ctl_three.isSelected()) return 3;
+		return 0;
+	}
+
+	// Tunnel probability chosen on setup
+	private double selectedTunnels()  {
+		if(ctl_simple.isSelected()) return Board.SIMPLE;
+		if(ctl_average.isSelected()) return Board.AVERAGE;
+		if(ctl_complex.isSelected()) return Board.COMPLEX;
+		return Board.TRIVIAL;
+	}
+
+	// Leave setup and play map m
+	// Call on event thread
+	private void play(Board m)  {
 		ctl_setup.setVisible(false);
-		message(MSG_DEFAULT);
-		requestFocus();
-		shooting = false;
-		int p = 0;
-		if(ctl_one.isSelected()) p = 1;
-		else if(ctl_two.isSelected()) p = 2;
-		else if(ctl_three.isSelected()) p = 3;
-		double t = 0;
-		if(ctl_simple.isSelected()) t = 0.2;
-		else if(ctl_average.isSelected()) t = 0.5;
-		else if(ctl_complex.isSelected()) t = 0.7;
-		while(!createMap(p, t));
-		repaint();
+		message(Board.MSG_DEFAULT);
+		requestFocusInWindow();
+		board = m;
+		renderer.setBoard(m);
+		board.setBlindfolded(ctl_blindfolded.isSelected());
+		if(log != null)  {
+			try  { log.begin(board); }
+			catch(IOException x)  { System.err.println("Game not recorded: " + x.getMessage()); }
+		}
+		refresh();
 	}
 
 	// Control hunter during gameplay
 	public void keyPressed(KeyEvent e)  {
+		long start = Metrics.ENABLED ? System.nanoTime() : 0;
 		if(!ctl_setup.isVisible())  {
+			Cell hunter = board.getHunter();
 			int d = Cell.UNDEFINED;
 			switch(e.getKeyCode())  {
 				case KeyEvent.VK_KP_UP:
@@ -346,20 +381,27 @@ public class Wumpus extends JApplet implements ActionListener, KeyListener  {
 					if(hunter != null) d = Cell.WEST;
 					break;
 				case KeyEvent.VK_V:
-					showMap();
+					board.showMap();
 					break;
 				case KeyEvent.VK_S:
-					if(hunter != null) shooting = !shooting;
+					if(hunter != null) board.setShooting(!board.isShooting());
 					break;
 				case KeyEvent.VK_R:
-					shooting = false;
+					board.setShooting(false);
+					message(board.getMessage());
 					ctl_setup.setVisible(true);
+					focus();
 					break;
 				default:
 					return;
 			}
-			if(d != Cell.UNDEFINED) arrow(d);
-			repaint();
+			if(d != Cell.UNDEFINED) board.arrow(d);
+			// Only time keys whose effect will be painted
+			if(Metrics.ENABLED && !ctl_setup.isVisible() && (board.isStale() || board.getDirtyCount() > 0))  {
+				pressed = start;
+				pressedKey = e.getKeyCode();
+			}
+			refresh();
 		}
 	}
 
@@ -368,37 +410,4 @@ public class Wumpus extends JApplet implements ActionListener, KeyListener  {
 	public void keyReleased(KeyEvent e)  {  }
 	public void keyTyped(KeyEvent e)  {  }
 
-	// Called when user presses arrow key, direction d
-	// Either move hunter or shoot in d
-	private void arrow(int d)  {
-		Cell c = hunter.neighbor(d);
-		if(c == null) return;
-		if(shooting)  {
-			shooting = false;
-			c.visible = true;
-			if(c.hasWumpus()) message(MSG_SHOT);
-			else message(MSG_EATEN);
-			hunter = null;
-		}
-		else  {
-			hunter.setHunter(false);
-			c.setHunter(true);
-		}
-	}
-
-	// Called when user presses V button during game play
-	// Reveal entire map and halt play
-	private void showMap()  {
-		for(int x = 0; x < WIDTH; x++)
-			for(int y = 0; y < HEIGHT; y++)  {
-				Cell c = cells[x][y];
-				c.visible = true;
-				if(c.isTunnel())  {
-					Tunnel t = (Tunnel)(c);
-					t.getPartner().visible = true;
-				}
-			}
-		hunter = null;
-	}
-
 }
\ No newline at end of file
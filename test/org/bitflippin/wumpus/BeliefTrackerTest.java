@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+// Tracker's chances against every hazard layout consistent with what hunter saw
+// Wumpus candidates must match exactly; pit chances are approximate,
+// so they must only be right where certain and close on average
+public class BeliefTrackerTest  {
+
+	// Small caves, so every pit layout can be listed
+	static final int SIZES[][] = { { 5, 4 }, { 4, 4 }, { 6, 3 } };
+	static final double TUNNELS[] = { Board.TRIVIAL, Board.SIMPLE, Board.AVERAGE };
+	static final int MAPS = 40;
+
+	// Random moves hunter makes on each map
+	static final int MOVES = 30;
+
+	// Largest mean gap allowed between tracker's pit chance and exact one,
+	// over rooms it is unsure of; about 0.06 on these caves
+	static final double ERROR = 0.08;
+
+	// Rooms of b
+	static List<Room> rooms(Board b)  {
+		List<Room> r = new ArrayList<>();
+		for(int x = 0; x < b.getWidth(); x++)
+			for(int y = 0; y < b.getHeight(); y++)
+				if(b.getCell(x, y).isRoom()) r.add((Room)(b.getCell(x, y)));
+		return r;
+	}
+
+	// Rooms next to r, as addPit sees them
+	static Set<Room> near(Room r)  {
+		Set<Room> s = new HashSet<>();
+		for(int d = 0; d < 4; d++)
+			s.add(r.adjacent(d));
+		return s;
+	}
+
+	// Rooms made lairs by wumpus in w, as addWumpus sees them
+	static Set<Room> ring(Room w)  {
+		Set<Room> s = new HashSet<>();
+		for(Room r1 : near(w))
+			s.addAll(near(r1));
+		s.addAll(near(w));
+		s.remove(w);
+		return s;
+	}
+
+	// Add to out every set of p pits among rooms from i on that fits what was seen
+	static void pits(List<Room> rooms, int i, int p, List<Room> pit, Set<Room> visited, Set<Room> banned, List<List<Room>> out)  {
+		if(p == 0)  {
+			Set<Room> swamps = new HashSet<>();
+			for(Room q : pit)
+				swamps.addAll(near(q));
+			for(Room v : visited)
+				if(v.hasSwamp() != swamps.contains(v)) return;
+			out.add(new ArrayList<>(pit));
+			return;
+		}
+		for(int j = i; j < rooms.size(); j++)  {
+			Room q = rooms.get(j);
+			if(banned.contains(q) || visited.contains(q)) continue;
+			pit.add(q);
+			pits(rooms, j + 1, p - 1, pit, visited, banned, out);
+			pit.remove(pit.size() - 1);
+		}
+	}
+
+	@Test
+	public void matchesConsistentLayouts() throws IOException  {
+		SplittableRandom r = new SplittableRandom(8);
+		double error[] = new double[2];
+		SeededBoards.each(8, SIZES, TUNNELS, MAPS, i -> 1 + i % 3, b ->  {
+			BeliefTracker t = new BeliefTracker(b);
+			t.start();
+			List<Room> rooms = rooms(b);
+			Room s = b.getStart();
+			Set<Room> shore = near(s);
+			shore.add(s);
+			Set<Room> far = new HashSet<>(shore);
+			for(Room q : near(s))
+				far.addAll(near(q));
+			Set<Room> visited = new HashSet<>();
+			for(int m = 0; m <= MOVES && b.getHunter() != null; m++)  {
+				if(m > 0)  {
+					b.apply(r.nextInt(4));
+					if(b.getHunter() == null) break;
+					t.update();
+				}
+				if(b.getHunter().isRoom()) visited.add((Room)(b.getHunter()));
+
+				// Wumpus rooms placement allows that fit every lair seen
+				Set<Room> wumpus = new HashSet<>();
+				for(Room w : rooms)  {
+					if(far.contains(w) || visited.contains(w)) continue;
+					Set<Room> lairs = ring(w);
+					boolean fits = true;
+					for(Room v : visited)
+						fits &= v.hasLair() == lairs.contains(v);
+					if(fits) wumpus.add(w);
+				}
+				assertTrue(wumpus.contains(b.getWumpus()));
+				assertEquals(wumpus.size(), t.getCandidates());
+
+				// Pit sets placement allows that fit every swamp seen
+				List<List<Room>> layouts = new ArrayList<>();
+				pits(rooms, 0, b.getPits(), new ArrayList<>(), visited, shore, layouts);
+				assertFalse(layouts.isEmpty());
+				for(Room q : rooms)  {
+					assertEquals(wumpus.contains(q) ? 1.0 / wumpus.size() : 0, t.wumpus(q), 1e-12);
+					int n = 0;
+					for(List<Room> l : layouts)
+						if(l.contains(q)) n++;
+					double exact = (double)(n) / layouts.size();
+					double p = t.pit(q);
+					if(p == 0) assertEquals(0, n);
+					if(p == 1) assertEquals(layouts.size(), n);
+					if(n > 0) assertTrue(p > 0);
+					if(t.isSafe(q)) assertTrue(n == 0 && !wumpus.contains(q));
+					if(p > 0 && p < 1)  {
+						error[0] += Math.abs(p - exact);
+						error[1]++;
+					}
+				}
+			}
+		});
+		assertTrue(error[1] > 0 && error[0] / error[1] <= ERROR);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+// Bitboard finds the same rooms as the Cell graph, one room or whole caves at a time
+public class BitboardTest  {
+
+	// Rooms of b that pass f, as a set of m
+	interface Rooms  { boolean has(Room q); }
+	static long[] rooms(Board b, Bitboard m, Rooms f)  {
+		long s[] = m.create();
+		for(int x = 0; x < b.getWidth(); x++)
+			for(int y = 0; y < b.getHeight(); y++)  {
+				Cell c = b.getCell(x, y);
+				if(c.isRoom() && f.has((Room)(c))) Bitboard.set(s, y * b.getWidth() + x);
+			}
+		return s;
+	}
+
+	// Set of m holding cell i alone
+	static long[] single(Bitboard m, int i)  {
+		long s[] = m.create();
+		Bitboard.set(s, i);
+		return s;
+	}
+
+	@Test
+	public void spreadMatchesAdjacent() throws IOException  {
+		SeededBoards.each(3, b ->  {
+			Bitboard m = new Bitboard(b);
+			long one[] = m.create();
+			long next[] = m.create();
+			for(int x = 0; x < b.getWidth(); x++)
+				for(int y = 0; y < b.getHeight(); y++)  {
+					Cell c = b.getCell(x, y);
+					if(!c.isRoom()) continue;
+					Room q = (Room)(c);
+					Bitboard.set(one, y * b.getWidth() + x);
+					m.spread(one, next);
+					Bitboard.clear(one, y * b.getWidth() + x);
+					assertArrayEquals(rooms(b, m, a ->  {
+						for(int d = 0; d < 4; d++)
+							if(q.adjacent(d) == a) return true;
+						return false;
+					}), next);
+				}
+		});
+	}
+
+	@Test
+	public void hazardsMatchRooms() throws IOException  {
+		SeededBoards.each(4, b ->  {
+			Bitboard m = new Bitboard(b);
+			assertArrayEquals(rooms(b, m, q -> true), m.getRooms());
+			assertArrayEquals(rooms(b, m, q -> q.hasPit()), m.getPits());
+			assertArrayEquals(rooms(b, m, q -> q.hasWumpus()), single(m, m.getWumpus()));
+			long t[] = m.create();
+			m.swamps(t);
+			assertArrayEquals(rooms(b, m, q -> q.hasSwamp()), t);
+			m.lairs(t);
+			assertArrayEquals(rooms(b, m, q -> q.hasLair()), t);
+			// Scratch sets are left clean for next call
+			m.lairs(t);
+			assertArrayEquals(rooms(b, m, q -> q.hasLair()), t);
+		});
+	}
+
+}
\ No newline at end of file
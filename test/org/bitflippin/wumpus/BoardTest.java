@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+// Map generation is reproducible from its seed and places hazards fairly
+// Batches of moves play out as the same moves one by one
+public class BoardTest  {
+
+	// Seeds tried per size and tunnel probability
+	static final int SEEDS = 50;
+
+	// Maps per preset and pit count for first layout rate
+	static final int FIRST = 20000;
+
+	// Moves per random batch
+	static final int BATCH = 64;
+
+	// Map of w by h cells with p pits and tunnel probability t, made from seed s
+	static Board create(int w, int h, int p, double t, long s)  {
+		Board b = new Board(w, h);
+		assertTrue(b.createMap(p, t, new SplittableRandom(s)));
+		return b;
+	}
+
+	// Every cell of a and b alike, down to tunnel orientation and hazards
+	static void assertSame(Board a, Board b)  {
+		assertEquals(a.getWidth(), b.getWidth());
+		assertEquals(a.getHeight(), b.getHeight());
+		for(int x = 0; x < a.getWidth(); x++)
+			for(int y = 0; y < a.getHeight(); y++)  {
+				Cell c = a.getCell(x, y);
+				Cell d = b.getCell(x, y);
+				assertEquals(c.isRoom(), d.isRoom());
+				assertEquals(c.hasPit(), d.hasPit());
+				assertEquals(c.hasSwamp(), d.hasSwamp());
+				assertEquals(c.hasLair(), d.hasLair());
+				assertEquals(c.hasWumpus(), d.hasWumpus());
+				assertEquals(c == a.getHunter(), d == b.getHunter());
+				for(int e = 0; e < 4; e++)
+					assertEquals(c.exits(e), d.exits(e));
+			}
+		assertEquals(new PackedBoard(a).getCells(), new PackedBoard(b).getCells());
+	}
+
+	@Test
+	public void sameSeedSameMap()  {
+		for(int s[] : new int[][] { { Board.WIDTH, Board.HEIGHT }, { 13, 11 }, { 40, 40 } })
+			for(double t : Server.TUNNELS)
+				for(int i = 0; i < SEEDS; i++)
+					assertSame(create(s[0], s[1], i % 4, t, i), create(s[0], s[1], i % 4, t, i));
+	}
+
+	@Test
+	public void otherSeedOtherMap()  {
+		for(double t : Server.TUNNELS)
+			for(int i = 0; i < SEEDS; i++)  {
+				Board a = create(Board.WIDTH, Board.HEIGHT, 2, t, i);
+				Board b = create(Board.WIDTH, Board.HEIGHT, 2, t, i + 1);
+				assertNotEquals(new PackedBoard(a).getCells(), new PackedBoard(b).getCells());
+			}
+	}
+
+	@Test
+	public void placementIsFair() throws IOException  {
+		SeededBoards.each(3, b ->  {
+			Room h = b.getStart();
+			assertTrue(h == b.getHunter());
+			assertFalse(h.hasSwamp());
+			assertFalse(h.hasLair());
+			assertFalse(h.hasPit());
+			assertFalse(h.hasWumpus());
+			for(int d = 0; d < 4; d++)
+				assertFalse(h.adjacent(d).hasPit());
+			Room w = b.getWumpus();
+			assertTrue(w.hasWumpus());
+			assertFalse(w.hasPit());
+			int n = 0;
+			for(int x = 0; x < b.getWidth(); x++)
+				for(int y = 0; y < b.getHeight(); y++)
+					if(b.getCell(x, y).hasPit()) n++;
+			assertEquals(b.getPits(), n);
+		});
+	}
+
+	// Placement is constructive, so the first layout fits all but the odd complex cave
+	@Test
+	public void firstLayoutFits()  {
+		SplittableRandom r = new SplittableRandom(4);
+		for(double t : Server.TUNNELS)
+			for(int p = 0; p < 4; p++)  {
+				int first = 0;
+				for(int i = 0; i < FIRST; i++)  {
+					Board b = new Board();
+					assertTrue(b.createMap(p, t, r));
+					if(b.getLayouts() == 1) first++;
+				}
+				if(t <= Board.AVERAGE) assertEquals(FIRST, first);
+				else assertTrue(first >= FIRST * 0.999, first + " of " + FIRST + " at " + p + " pits");
+			}
+	}
+
+	// Random batch of n moves drawn from r, about one in twenty a shot
+	static int[] moves(SplittableRandom r, int n)  {
+		int m[] = new int[n];
+		for(int i = 0; i < n; i++)
+			m[i] = r.nextInt(4) | (r.nextInt(20) == 0 ? HunterAgent.SHOOT : 0);
+		return m;
+	}
+
+	// Whether cell at x, y of b is uncovered; either half of a tunnel counts
+	static boolean seen(Board b, int x, int y)  {
+		Cell c = b.getCell(x, y);
+		return c.visible || c.isTunnel() && ((Tunnel)(c)).getPartner().visible;
+	}
+
+	@Test
+	public void batchMatchesSingleMoves() throws IOException  {
+		SplittableRandom r = new SplittableRandom(6);
+		MoveResult m = new MoveResult();
+		int ended[] = new int[1];
+		int crossed[] = new int[1];
+		SeededBoards.each(6, b ->  {
+			Board s = new Board(new PackedBoard(b));
+			int w = b.getWidth();
+			int h = b.getHeight();
+			int k[] = moves(r, BATCH);
+			int n = b.apply(k, k.length, m);
+
+			// Same moves one by one, noting cells each uncovers
+			List<Integer> expect = new ArrayList<>();
+			int i = 0;
+			while(i < k.length && s.getHunter() != null)  {
+				boolean before[] = new boolean[w * h];
+				for(int x = 0; x < w; x++)
+					for(int y = 0; y < h; y++)
+						before[y * w + x] = seen(s, x, y);
+				s.apply(k[i++]);
+				for(int x = 0; x < w; x++)
+					for(int y = 0; y < h; y++)
+						if(!before[y * w + x] && seen(s, x, y)) expect.add(y * w + x);
+			}
+			assertEquals(i, n);
+			assertEquals(i, m.getMoves());
+			List<Integer> got = new ArrayList<>();
+			for(int j = 0; j < m.getRevealedCount(); j++)
+				got.add(m.getRevealed(j));
+			assertEquals(expect, got);
+
+			// Nothing after end of game was carried out
+			Cell e = s.getHunter();
+			assertEquals(e == null, b.getHunter() == null);
+			assertEquals(e == null, !m.isAlive());
+			if(e == null)  {
+				assertEquals(s.getMessage(), b.getMessage());
+				assertEquals(s.getMessage(), m.getMessage());
+				if(n < k.length) ended[0]++;
+			}
+			else  {
+				assertEquals(e.x, m.getX());
+				assertEquals(e.y, m.getY());
+				assertEquals(e.x, b.getHunter().x);
+				assertEquals(e.y, b.getHunter().y);
+			}
+			for(int x = 0; x < w; x++)
+				for(int y = 0; y < h; y++)  {
+					assertEquals(seen(s, x, y), seen(b, x, y));
+					Cell c = b.getCell(x, y);
+					if(c.isTunnel() && c.visible && ((Tunnel)(c)).getPartner().visible && got.contains(y * w + x)) crossed[0]++;
+				}
+			assertEquals(got.size(), got.stream().distinct().count());
+		});
+		assertTrue(ended[0] > 0);
+		assertTrue(crossed[0] > 0);
+	}
+
+	@Test
+	public void batchStopsWhenGameEnds() throws IOException  {
+		MoveResult m = new MoveResult();
+		int k[] = { Cell.NORTH | HunterAgent.SHOOT, Cell.SOUTH, Cell.EAST, Cell.EAST, Cell.NORTH };
+		SeededBoards.each(7, b ->  {
+			Room h = b.getStart();
+			Cell c = h.neighbor(Cell.NORTH);
+			assertEquals(1, b.apply(k, k.length, m));
+			assertEquals(1, m.getMoves());
+			assertEquals(Board.MSG_EATEN, m.getMessage());
+			assertEquals(-1, m.getX());
+			assertEquals(-1, m.getY());
+			assertNull(b.getHunter());
+
+			// Only start and room arrow flew into are uncovered, once each
+			int w = b.getWidth();
+			if(c == h) assertEquals(0, m.getRevealedCount());
+			else  {
+				assertEquals(1, m.getRevealedCount());
+				assertEquals(c.y * w + c.x, m.getRevealed(0));
+			}
+			for(int x = 0; x < w; x++)
+				for(int y = 0; y < b.getHeight(); y++)
+					assertEquals(x == h.x && y == h.y || x == c.x && y == c.y, seen(b, x, y));
+		});
+	}
+
+}
\ No newline at end of file
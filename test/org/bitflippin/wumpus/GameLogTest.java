@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+// Games recorded by GameLog replay to the same outcomes
+public class GameLogTest  {
+
+	// Games recorded per test
+	static final int GAMES = 5000;
+
+	// Record random games into o, a few revealed or abandoned
+	// Return count of games by GameLog outcome
+	static int[] record(ByteArrayOutputStream o, int games, long seed) throws IOException  {
+		SplittableRandom r = new SplittableRandom(seed);
+		GameLog l = new GameLog(Channels.newChannel(o));
+		Board b = new Board();
+		int outcomes[] = new int[GameLog.REVEALED + 1];
+		for(int i = 0; i < games; i++)  {
+			b.createMap(i % 4, Board.AVERAGE, r);
+			l.begin(b);
+			int k = r.nextInt(60);
+			for(int j = 0; j < k && b.getHunter() != null; j++)
+				b.apply(r.nextInt(4) | (r.nextInt(8) == 0 ? HunterAgent.SHOOT : 0));
+			if(i % 50 == 0) b.showMap();
+			outcomes[GameLog.outcome(b)]++;
+		}
+		l.close();
+		return outcomes;
+	}
+
+	@Test
+	public void replayMatchesRecording() throws IOException  {
+		ByteArrayOutputStream o = new ByteArrayOutputStream();
+		int outcomes[] = record(o, GAMES, 5);
+		Replayer p = new Replayer();
+		p.replay(ByteBuffer.wrap(o.toByteArray()));
+		Statistics s = p.getStatistics();
+		assertEquals(GAMES, s.getGames());
+		assertEquals(0, p.getMismatches());
+		assertEquals(outcomes[GameLog.SHOT], s.getShot());
+		assertEquals(outcomes[GameLog.EATEN], s.getEaten());
+		assertEquals(outcomes[GameLog.FALLEN], s.getFallen());
+	}
+
+	@Test
+	public void failedWriteStopsRecording() throws IOException  {
+		ByteArrayOutputStream o = new ByteArrayOutputStream();
+		WritableByteChannel c = Channels.newChannel(o);
+		int failing = 50;
+		GameLog l = new GameLog(new WritableByteChannel()  {
+			int writes;
+			public int write(ByteBuffer b) throws IOException  {
+				if(++writes == failing) throw new IOException("Disk full");
+				return c.write(b);
+			}
+			public boolean isOpen()  { return c.isOpen(); }
+			public void close() throws IOException  { c.close(); }
+		});
+		l.setFlushing(true);
+		ByteArrayOutputStream report = new ByteArrayOutputStream();
+		l.setReport(new PrintStream(report, true));
+		SplittableRandom r = new SplittableRandom(6);
+		Board b = new Board();
+		for(int i = 0; i < 2 * failing; i++)  {
+			b.createMap(2, Board.SIMPLE, r);
+			l.begin(b);
+			while(b.getHunter() != null)
+				b.apply(r.nextInt(4));
+		}
+		assertNotNull(l.getFailure());
+		assertEquals("Game log stopped: Disk full" + System.lineSeparator(), report.toString());
+		assertSame(l.getFailure(), assertThrows(IOException.class, l::close));
+		// Games written before failure replay whole, and none after it are spliced on
+		Replayer p = new Replayer();
+		p.replay(ByteBuffer.wrap(o.toByteArray()));
+		assertEquals(failing - 1, p.getStatistics().getGames());
+		assertEquals(0, p.getMismatches());
+	}
+
+}
\ No newline at end of file
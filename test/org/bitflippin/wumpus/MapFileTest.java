@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Maps survive MapFile and Board(PackedBoard) unchanged
+public class MapFileTest  {
+
+	@Test
+	public void channelRoundTrip() throws IOException  {
+		SeededBoards.each(2, b ->  {
+			PackedBoard p = new PackedBoard(b);
+			ByteArrayOutputStream o = new ByteArrayOutputStream();
+			MapFile.write(p, Channels.newChannel(o));
+			assertEquals(MapFile.size(b.getWidth(), b.getHeight()), o.size());
+			PackedBoard q = MapFile.read(Channels.newChannel(new ByteArrayInputStream(o.toByteArray())));
+			assertEquals(p.getWidth(), q.getWidth());
+			assertEquals(p.getHeight(), q.getHeight());
+			assertEquals(p.getCells(), q.getCells());
+			assertEquals(p.getCells(), MapFile.view(ByteBuffer.wrap(o.toByteArray()), 0).getCells());
+		});
+	}
+
+	@Test
+	public void boardRoundTrip() throws IOException  {
+		SeededBoards.each(3, b ->  {
+			PackedBoard p = new PackedBoard(b);
+			// Swamps and lairs are worked out again from pits and wumpus
+			Board c = new Board(p);
+			assertEquals(p.getCells(), new PackedBoard(c).getCells());
+			assertEquals(b.getPits(), c.getPits());
+			assertEquals(b.getStart().x, c.getHunter().x);
+			assertEquals(b.getStart().y, c.getHunter().y);
+		});
+	}
+
+	@Test
+	public void savedFileMapsBack(@TempDir Path d) throws IOException  {
+		Board b = new Board(13, 11);
+		b.createMap(3, Board.COMPLEX, new SplittableRandom(4));
+		PackedBoard p = new PackedBoard(b);
+		Path f = d.resolve("cave.wump");
+		MapFile.save(p, f);
+		assertEquals(p.getCells(), MapFile.map(f).getCells());
+	}
+
+	@Test
+	public void rejectsOtherBytes()  {
+		ByteBuffer b = ByteBuffer.allocate(MapFile.size(2, 2));
+		assertThrows(IOException.class, () -> MapFile.view(b, 0));
+	}
+
+}
\ No newline at end of file
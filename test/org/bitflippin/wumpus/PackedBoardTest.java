@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+// PackedBoard answers every query exactly as the Cell graph it was packed from
+public class PackedBoardTest  {
+
+	// Position of cell or tunnel half c on p
+	static int position(PackedBoard p, Cell c)  {
+		int q = p.position(c.x, c.y);
+		return c.isTunnel() && c.exits(Cell.SOUTH) ? q | 1 : q;
+	}
+
+	@Test
+	public void neighborsAndHazardsMatchCells() throws IOException  {
+		SeededBoards.each(1, b ->  {
+			PackedBoard p = new PackedBoard(b);
+			assertEquals(position(p, b.getStart()), p.getStart());
+			for(int x = 0; x < b.getWidth(); x++)
+				for(int y = 0; y < b.getHeight(); y++)  {
+					Cell c = b.getCell(x, y);
+					check(p, c);
+					if(c.isTunnel()) check(p, ((Tunnel)(c)).getPartner());
+				}
+		});
+	}
+
+	// Compare every query of p about cell or tunnel half c
+	private static void check(PackedBoard p, Cell c)  {
+		int q = position(p, c);
+		assertEquals(c.isRoom(), p.isRoom(q));
+		assertEquals(c.isTunnel(), p.isTunnel(q));
+		assertEquals(c.hasPit(), p.hasPit(q));
+		assertEquals(c.hasSwamp(), p.hasSwamp(q));
+		assertEquals(c.hasLair(), p.hasLair(q));
+		assertEquals(c.hasWumpus(), p.hasWumpus(q));
+		for(int d = 0; d < 4; d++)  {
+			assertEquals(c.exits(d), p.exits(q, d));
+			Cell n = c.neighbor(d);
+			assertEquals(n == null ? PackedBoard.NONE : position(p, n), p.neighbor(q, d));
+			if(n == null) continue;
+			Room a = n.propagate(c);
+			assertEquals(a == null ? PackedBoard.NONE : position(p, a), p.propagate(position(p, n), q));
+		}
+	}
+
+}
\ No newline at end of file
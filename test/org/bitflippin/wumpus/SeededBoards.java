@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.function.IntUnaryOperator;
+
+// Maps made from fixed seeds over a spread of cave sizes and tunnel settings
+// Shared by tests that check something holds on every map
+final class SeededBoards  {
+
+	// Cave sizes tried, including single rows, columns and cells
+	static final int SIZES[][] = { { 10, 7 }, { 1, 1 }, { 1, 6 }, { 7, 1 }, { 2, 2 }, { 13, 11 } };
+
+	// Tunnel probabilities tried, from none to setup screen complex and beyond
+	static final double TUNNELS[] = { Board.TRIVIAL, Board.SIMPLE, Board.AVERAGE, Board.COMPLEX, 0.9 };
+
+	// Maps created per size and tunnel probability
+	static final int MAPS = 200;
+
+	// What a test checks on each map
+	interface Check  { void check(Board b) throws IOException; }
+
+	// Run c on n maps for each of sizes and tunnel probabilities, all drawn from seed
+	// Map i of each batch gets pits(i) pits; maps createMap fails on are skipped
+	static void each(long seed, int sizes[][], double tunnels[], int n, IntUnaryOperator pits, Check c) throws IOException  {
+		SplittableRandom r = new SplittableRandom(seed);
+		for(int s[] : sizes)
+			for(double t : tunnels)
+				for(int i = 0; i < n; i++)  {
+					Board b = new Board(s[0], s[1]);
+					if(b.createMap(pits.applyAsInt(i), t, r)) c.check(b);
+				}
+	}
+
+	// Run c on MAPS maps of each of SIZES and TUNNELS, with 0 to 3 pits in turn
+	static void each(long seed, Check c) throws IOException  { each(seed, SIZES, TUNNELS, MAPS, i -> i % 4, c); }
+
+}
\ No newline at end of file
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Line protocol of Server, spoken over loopback socket
+// Games have no pits or tunnels, so every cell is a room exiting all ways,
+// and the start room is never a swamp or lair
+public class ServerTest  {
+
+	// Longest wait for a reply
+	static final int TIMEOUT = 10000;
+
+	// Reply to NEW on a cave of rooms only
+	static final Pattern START = Pattern.compile("PLAY (\\d+) (\\d+) NESW");
+
+	private Server server;
+	private Socket socket;
+	private BufferedReader in;
+	private Writer out;
+
+	@BeforeEach
+	public void connect() throws IOException  {
+		server = new Server(Board.WIDTH, Board.HEIGHT, 0);
+		Thread t = new Thread(() ->  {
+			try  {
+				server.serve();
+			}
+			catch(IOException e)  {
+				// Test fails on its own when no reply comes
+			}
+		}, "Wumpus server");
+		t.setDaemon(true);
+		t.start();
+		socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+		socket.setSoTimeout(TIMEOUT);
+		in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+		out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+	}
+
+	@AfterEach
+	public void disconnect() throws IOException  {
+		socket.close();
+		server.close();
+	}
+
+	// Send command c and return reply line
+	private String send(String c) throws IOException  {
+		out.write(c + "\n");
+		out.flush();
+		return in.readLine();
+	}
+
+	// Start game with command c and return hunter's x, y
+	private int[] start(String c) throws IOException  {
+		String r = send(c);
+		Matcher m = START.matcher(r);
+		assertTrue(m.matches(), r);
+		int s[] = { Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)) };
+		assertTrue(s[0] < Board.WIDTH && s[1] < Board.HEIGHT, r);
+		return s;
+	}
+
+	@Test
+	public void noGameYet() throws IOException  {
+		assertEquals("ERROR no game", send("LOOK"));
+		assertEquals("ERROR no game", send("MOVE N"));
+		assertEquals("ERROR no game", send("SHOOT E"));
+		assertEquals("ERROR no game", send("BATCH NNE"));
+		assertEquals("ERROR unknown command", send("JUMP"));
+		assertEquals("ERROR unknown command", send(""));
+	}
+
+	@Test
+	public void badSettings() throws IOException  {
+		assertEquals("ERROR bad settings", send("NEW 0 0.3"));
+		assertEquals("ERROR bad settings", send("NEW 0 NaN"));
+		assertEquals("ERROR bad settings", send("NEW 4"));
+		assertEquals("ERROR bad settings", send("NEW -1"));
+		assertEquals("ERROR bad settings", send("NEW 0 0 9"));
+		assertEquals("ERROR bad number", send("NEW two"));
+		assertEquals("ERROR bad number", send("NEW 0 simple"));
+		assertEquals("ERROR no game", send("LOOK"));
+	}
+
+	@Test
+	public void badMoves() throws IOException  {
+		int s[] = start("NEW 0 0");
+		String play = "PLAY " + s[0] + " " + s[1] + " NESW";
+		assertEquals("ERROR need direction", send("MOVE"));
+		assertEquals("ERROR need direction", send("MOVE X"));
+		assertEquals("ERROR need direction", send("MOVE NE"));
+		assertEquals("ERROR need direction", send("SHOOT"));
+		assertEquals("ERROR need direction", send("SHOOT *"));
+		assertEquals("ERROR need moves", send("BATCH"));
+		assertEquals("ERROR bad moves", send("BATCH N*"));
+		assertEquals("ERROR bad moves", send("BATCH **N"));
+		assertEquals("ERROR bad moves", send("BATCH NQ"));
+		assertEquals(play, send("LOOK"));
+	}
+
+	@Test
+	public void play() throws IOException  {
+		int s[] = start("NEW 0 -0.0");
+		assertEquals("PLAY " + s[0] + " " + s[1] + " NESW", send("look"));
+
+		// Wumpus is three rooms away or more, so one step north is safe
+		int y = s[1] == 0 ? Board.HEIGHT - 1 : s[1] - 1;
+		String r = send("move n");
+		String play = "PLAY " + s[0] + " " + y + " NESW";
+		assertTrue(r.equals(play) || r.equals(play + " LAIR"), r);
+
+		// Arrow back into start room misses; start was seen already
+		assertEquals("OVER EATEN MOVES 1 SEEN", send("BATCH *SSS"));
+		assertEquals("OVER EATEN", send("MOVE S"));
+		assertEquals("OVER EATEN", send("LOOK"));
+
+		// Arrow into unseen room misses and uncovers it
+		s = start("NEW 1 0");
+		int x = (s[0] + 1) % Board.WIDTH;
+		assertEquals("OVER EATEN MOVES 1 SEEN " + x + "," + s[1], send("BATCH *E"));
+		assertEquals("OVER EATEN", send("SHOOT W"));
+
+		// Shooting ends game too
+		start("NEW");
+		assertEquals("OVER EATEN", send("shoot w"));
+	}
+
+	@Test
+	public void quit() throws IOException  {
+		assertEquals("BYE", send("QUIT"));
+		assertNull(in.readLine());
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2004, Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * Contributors:
+ *    Steven Baldasty <sbaldasty@bitflippin.org>
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ *
+ */
+package org.bitflippin.wumpus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+// Solver bounds and cuts never lose win chance they shouldn't
+// Budgets only cut search short, never past what depth 0 or bounds find
+public class SolverTest  {
+
+	// Small caves, so exact solves stay quick
+	static final int SIZES[][] = { { 6, 5 }, { 5, 5 }, { 8, 4 } };
+	static final double TUNNELS[] = { Board.TRIVIAL, Board.SIMPLE, Board.AVERAGE };
+	static final int MAPS = 6;
+
+	// Win chance of start of b, looking ahead d risky rooms within tolerance t
+	static double solve(Board b, int d, double t)  {
+		Solver s = new Solver(b);
+		s.setDepth(d);
+		s.setTolerance(t);
+		return s.solve();
+	}
+
+	@Test
+	public void deeperNeverWorse() throws IOException  {
+		SeededBoards.each(4, SIZES, TUNNELS, MAPS, i -> 1 + i % 2, b ->  {
+			double w0 = solve(b, 0, 0);
+			double w1 = solve(b, 1, 0);
+			double w2 = solve(b, 2, 0);
+			assertTrue(w0 >= 0 && w2 <= 1 + 1e-9);
+			assertTrue(w1 >= w0 - 1e-9);
+			assertTrue(w2 >= w1 - 1e-9);
+		});
+	}
+
+	@Test
+	public void toleranceBoundsShortfall() throws IOException  {
+		SeededBoards.each(5, SIZES, TUNNELS, MAPS, i -> 1 + i % 2, b ->  {
+			double exact = solve(b, 2, 0);
+			double near = solve(b, 2, 0.05);
+			assertTrue(near <= exact + 1e-9);
+			assertTrue(near >= exact * (1 - 0.05) - 1e-9);
+		});
+	}
+
+	@Test
+	public void budgetKeepsFinishedSearch() throws IOException  {
+		SeededBoards.each(6, SIZES, TUNNELS, MAPS, i -> 1 + i % 2, b ->  {
+			double exact = solve(b, 2, 0);
+			Solver s = new Solver(b);
+			s.setTolerance(0);
+			s.setBudget(60000);
+			assertEquals(exact, s.solve(), 1e-12);
+			assertEquals(2, s.getReached());
+
+			// Even cut short, hunter gets an action at start, where every neighbor is safe
+			Solver q = new Solver(b);
+			q.setTolerance(0);
+			q.setBudget(1);
+			double w = q.solve();
+			assertTrue(q.getReached() >= -1 && q.getReached() <= 2);
+			assertTrue(w >= 0 && w <= exact + 1e-9);
+			assertNotNull(q.getTarget());
+		});
+	}
+
+}
\ No newline at end of file